@@ -2,7 +2,9 @@ package com.orionverse.devplatform;
 
 import android.app.Application;
 
+import com.orionverse.devplatform.repositories.Outbox;
 import com.orionverse.devplatform.utils.CloudinaryUtil;
+import com.orionverse.devplatform.utils.FirebaseUtil;
 
 public class OrionVerseApp extends Application {
     
@@ -12,5 +14,11 @@ public class OrionVerseApp extends Application {
         
         // Initialize Cloudinary
         CloudinaryUtil.init(this);
+
+        // Persistent Firestore cache so screens can paint from disk before the network answers
+        FirebaseUtil.configureCache(FirebaseUtil.DEFAULT_CACHE_SIZE_BYTES);
+
+        // Resume sending anything the user wrote offline in an earlier session
+        Outbox.getInstance(this).start();
     }
 }
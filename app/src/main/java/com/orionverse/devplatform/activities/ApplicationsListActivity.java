@@ -3,28 +3,36 @@ package com.orionverse.devplatform.activities;
 import android.app.Dialog;
 import android.os.Bundle;
 import android.util.Log;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.view.View;
 import android.view.Window;
+import android.widget.CheckBox;
 import android.widget.ProgressBar;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.appbar.MaterialToolbar;
-import com.google.firebase.firestore.DocumentReference;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.adapters.ApplicationAdapter;
 import com.orionverse.devplatform.models.Application;
-import com.orionverse.devplatform.models.Notification;
-import com.orionverse.devplatform.models.PendingProject;
 import com.orionverse.devplatform.models.Post;
+import com.orionverse.devplatform.repositories.ApplicationRepository;
+import com.orionverse.devplatform.repositories.PagedQueryLiveData;
 import com.orionverse.devplatform.utils.FirebaseUtil;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class ApplicationsListActivity extends AppCompatActivity {
     private static final String TAG = "ApplicationsListActivity";
@@ -34,6 +42,10 @@ public class ApplicationsListActivity extends AppCompatActivity {
     private View emptyState;
     private String postId;
     private String postTitle;
+    private PagedQueryLiveData<Application> applications;
+    private Application.ApplicationStatus statusFilter = null; // null = all statuses
+    private Map<Application.ApplicationStatus, Long> statusCounts;
+    private ActionMode selectionActionMode;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -61,6 +73,54 @@ public class ApplicationsListActivity extends AppCompatActivity {
         initializeViews();
         setupRecyclerView();
         loadApplications();
+        loadStatusCounts();
+    }
+
+    @Override
+    public boolean onCreateOptionsMenu(Menu menu) {
+        getMenuInflater().inflate(R.menu.menu_applications_filter, menu);
+        return true;
+    }
+
+    @Override
+    public boolean onPrepareOptionsMenu(Menu menu) {
+        if (statusCounts != null) {
+            long total = 0;
+            for (Long count : statusCounts.values()) {
+                total += count;
+            }
+            menu.findItem(R.id.filter_all).setTitle("All (" + total + ")");
+            menu.findItem(R.id.filter_pending).setTitle("Pending (" + statusCounts.get(Application.ApplicationStatus.PENDING) + ")");
+            menu.findItem(R.id.filter_accepted).setTitle("Accepted (" + statusCounts.get(Application.ApplicationStatus.ACCEPTED) + ")");
+            menu.findItem(R.id.filter_rejected).setTitle("Rejected (" + statusCounts.get(Application.ApplicationStatus.REJECTED) + ")");
+        }
+        return super.onPrepareOptionsMenu(menu);
+    }
+
+    @Override
+    public boolean onOptionsItemSelected(MenuItem item) {
+        int id = item.getItemId();
+        Application.ApplicationStatus filter;
+        if (id == R.id.filter_all) {
+            filter = null;
+        } else if (id == R.id.filter_pending) {
+            filter = Application.ApplicationStatus.PENDING;
+        } else if (id == R.id.filter_accepted) {
+            filter = Application.ApplicationStatus.ACCEPTED;
+        } else if (id == R.id.filter_rejected) {
+            filter = Application.ApplicationStatus.REJECTED;
+        } else {
+            return super.onOptionsItemSelected(item);
+        }
+        item.setChecked(true);
+        if (filter != statusFilter) {
+            statusFilter = filter;
+            if (selectionActionMode != null) {
+                selectionActionMode.finish();
+            }
+            loadApplications();
+        }
+        return true;
     }
 
     private void initializeViews() {
@@ -77,16 +137,18 @@ public class ApplicationsListActivity extends AppCompatActivity {
         adapter.setOnApplicationActionListener(new ApplicationAdapter.OnApplicationActionListener() {
             @Override
             public void onAccept(Application application) {
+                int others = countOtherPending(application);
                 showConfirmDialog("Accept Application", 
                     "Are you sure you want to accept " + application.getDeveloperName() + "'s application?",
-                    () -> updateApplicationStatus(application, "ACCEPTED"));
+                    others > 0 ? "Reject the other " + others + " pending applications" : null,
+                    rejectOthers -> acceptApplication(application, rejectOthers));
             }
 
             @Override
             public void onReject(Application application) {
                 showConfirmDialog("Reject Application", 
                     "Are you sure you want to reject " + application.getDeveloperName() + "'s application?",
-                    () -> updateApplicationStatus(application, "REJECTED"));
+                    () -> rejectApplication(application));
             }
 
             @Override
@@ -94,6 +156,91 @@ public class ApplicationsListActivity extends AppCompatActivity {
                 showApplicationDetailsDialog(application);
             }
         });
+
+        // Open the next cursor page when the user nears the end of what's loaded
+        applicationsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (applications != null && dy > 0 && layoutManager != null
+                        && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 5) {
+                    applications.loadMore();
+                }
+            }
+        });
+
+        adapter.setOnSelectionChangedListener(count -> {
+            if (count > 0 && selectionActionMode == null) {
+                selectionActionMode = startSupportActionMode(selectionCallback);
+            }
+            if (selectionActionMode != null) {
+                if (count == 0) {
+                    selectionActionMode.finish();
+                } else {
+                    selectionActionMode.setTitle(count + " selected");
+                }
+            }
+        });
+    }
+
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            mode.getMenuInflater().inflate(R.menu.menu_application_selection, menu);
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            List<Application> selected = adapter.getSelectedApplications();
+            int id = item.getItemId();
+            if (id == R.id.action_select_all_pending) {
+                adapter.selectAllPending();
+                return true;
+            } else if (id == R.id.action_accept_selected) {
+                showConfirmDialog("Accept Applications",
+                    "Accept " + selected.size() + " selected applications?",
+                    () -> updateSelected(selected, Application.ApplicationStatus.ACCEPTED));
+                return true;
+            } else if (id == R.id.action_reject_selected) {
+                showConfirmDialog("Reject Applications",
+                    "Reject " + selected.size() + " selected applications?",
+                    () -> updateSelected(selected, Application.ApplicationStatus.REJECTED));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionActionMode = null;
+            adapter.clearSelection();
+        }
+    };
+
+    // From the count() aggregate, since the loaded pages only cover what has been scrolled into
+    // view under the current filter. Falls back to the loaded rows until the counts arrive.
+    private int countOtherPending(Application application) {
+        boolean self = application.getStatusEnum() == Application.ApplicationStatus.PENDING;
+        if (statusCounts != null) {
+            Long pending = statusCounts.get(Application.ApplicationStatus.PENDING);
+            return (int) Math.max(0, (pending != null ? pending : 0) - (self ? 1 : 0));
+        }
+        int count = 0;
+        if (applications.getValue() != null) {
+            for (Application other : applications.getValue()) {
+                if (!other.getApplicationId().equals(application.getApplicationId())
+                        && other.getStatusEnum() == Application.ApplicationStatus.PENDING) {
+                    count++;
+                }
+            }
+        }
+        return count;
     }
 
     private void loadApplications() {
@@ -101,137 +248,131 @@ public class ApplicationsListActivity extends AppCompatActivity {
         applicationsRecyclerView.setVisibility(View.GONE);
         emptyState.setVisibility(View.GONE);
 
-        FirebaseUtil.getApplicationsCollection()
-                .whereEqualTo("postId", postId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    progressBar.setVisibility(View.GONE);
-
-                    List<Application> applications = new ArrayList<>();
-                    querySnapshot.forEach(doc -> {
-                        Application app = doc.toObject(Application.class);
-                        app.setApplicationId(doc.getId());
-                        applications.add(app);
-                    });
-
-                    if (applications.isEmpty()) {
-                        emptyState.setVisibility(View.VISIBLE);
-                    } else {
-                        applicationsRecyclerView.setVisibility(View.VISIBLE);
-                        adapter.setApplications(applications);
-                    }
+        if (applications != null) {
+            applications.removeObservers(this);
+            applications.getErrors().removeObservers(this);
+        }
+
+        // Realtime: status changes made here or by another device arrive as snapshot deltas.
+        // Only the first page is read on open; more pages load as the list is scrolled
+        applications = ApplicationRepository.getInstance().getApplicationsForPost(postId, statusFilter);
+        applications.observe(this, list -> {
+            progressBar.setVisibility(View.GONE);
+
+            if (list.isEmpty()) {
+                applicationsRecyclerView.setVisibility(View.GONE);
+                emptyState.setVisibility(View.VISIBLE);
+            } else {
+                emptyState.setVisibility(View.GONE);
+                applicationsRecyclerView.setVisibility(View.VISIBLE);
+                adapter.setApplications(list);
+            }
+        });
+        applications.getErrors().observe(this, e -> {
+            progressBar.setVisibility(View.GONE);
+            Toast.makeText(this, "Failed to load applications: " + e.getMessage(), 
+                Toast.LENGTH_SHORT).show();
+        });
+    }
+
+    // Counts come from count() aggregations, so they don't depend on how much of the list is loaded
+    private void loadStatusCounts() {
+        ApplicationRepository.getInstance().getApplicationCounts(postId)
+                .addOnSuccessListener(counts -> {
+                    statusCounts = counts;
+                    invalidateOptionsMenu();
                 })
-                .addOnFailureListener(e -> {
-                    progressBar.setVisibility(View.GONE);
-                    Toast.makeText(this, "Failed to load applications: " + e.getMessage(), 
-                        Toast.LENGTH_SHORT).show();
-                });
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to load status counts: " + e.getMessage()));
     }
 
-    private void updateApplicationStatus(Application application, String newStatus) {
-        FirebaseUtil.getApplicationsCollection()
-                .document(application.getApplicationId())
-                .update("status", newStatus)
+    private void acceptApplication(Application application, boolean rejectOthers) {
+        Post post = getPost();
+
+        // Status, PendingProject and notifications commit together; the listener updates the list
+        ApplicationRepository.getInstance().acceptApplication(application, post, rejectOthers)
                 .addOnSuccessListener(aVoid -> {
-                    // Send notification to applicant
-                    sendNotificationToApplicant(application, newStatus);
-                    
-                    // If accepted, create pending project
-                    if (newStatus.equals("ACCEPTED")) {
-                        createPendingProject(application);
-                    }
-                    
-                    Toast.makeText(this, "Application " + newStatus.toLowerCase(), 
-                        Toast.LENGTH_SHORT).show();
-                    loadApplications(); // Reload to refresh UI
+                    Toast.makeText(this, "Application accepted", Toast.LENGTH_SHORT).show();
+                    loadStatusCounts();
                 })
                 .addOnFailureListener(e -> {
-                    Toast.makeText(this, "Failed to update status: " + e.getMessage(), 
+                    Log.e(TAG, "Failed to accept application", e);
+                    Toast.makeText(this, "Failed to update status: " + e.getMessage(),
                         Toast.LENGTH_SHORT).show();
                 });
     }
 
-    private void sendNotificationToApplicant(Application application, String status) {
-        Log.d(TAG, "Sending notification to developer: " + application.getDeveloperId());
-        
-        Notification.NotificationType type = status.equals("ACCEPTED") 
-                ? Notification.NotificationType.APPLICATION_ACCEPTED
-                : Notification.NotificationType.APPLICATION_REJECTED;
-        
-        String title = status.equals("ACCEPTED") 
-                ? "Application Accepted!" 
-                : "Application Rejected";
-        
-        String message = status.equals("ACCEPTED")
-                ? "Congratulations! Your application for \"" + application.getPostTitle() + "\" has been accepted."
-                : "Your application for \"" + application.getPostTitle() + "\" has been rejected.";
-        
-        Notification notification = new Notification(
-                application.getDeveloperId(),
-                type,
-                title,
-                message,
-                application.getApplicationId()
-        );
-        
-        DocumentReference notifRef = FirebaseUtil.getNotificationsCollection().document();
-        notification.setNotificationId(notifRef.getId());
-        
-        Log.d(TAG, "Saving notification with ID: " + notifRef.getId());
-        
-        notifRef.set(notification)
+    // Shows the new statuses right away; the diff only rebinds the affected rows and the
+    // snapshot listener confirms them once the batches commit
+    private void updateSelected(List<Application> selected, Application.ApplicationStatus status) {
+        if (selected.isEmpty()) return;
+        if (selectionActionMode != null) {
+            selectionActionMode.finish();
+        }
+
+        Map<String, Application> updated = new HashMap<>();
+        for (Application application : selected) {
+            Application copy = new Application(application);
+            copy.setStatus(status.name());
+            updated.put(copy.getApplicationId(), copy);
+        }
+        List<Application> optimistic = new ArrayList<>();
+        for (Application application : adapter.getCurrentList()) {
+            Application copy = updated.get(application.getApplicationId());
+            optimistic.add(copy != null ? copy : application);
+        }
+        adapter.setApplications(optimistic);
+
+        ApplicationRepository repository = ApplicationRepository.getInstance();
+        (status == Application.ApplicationStatus.ACCEPTED
+                ? repository.acceptApplications(selected, getPost())
+                : repository.rejectApplications(selected))
                 .addOnSuccessListener(aVoid -> {
-                    Log.d(TAG, "Notification sent successfully to " + application.getDeveloperName());
+                    Toast.makeText(this, selected.size() + " applications " + status.name().toLowerCase(),
+                        Toast.LENGTH_SHORT).show();
+                    loadStatusCounts();
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to send notification: " + e.getMessage(), e);
+                    Log.e(TAG, "Bulk " + status + " failed", e);
+                    // Some batches may have committed; the listener's list is the source of truth
+                    if (applications.getValue() != null) {
+                        adapter.setApplications(applications.getValue());
+                    }
+                    Toast.makeText(this, "Failed to update some applications: " + e.getMessage(),
+                        Toast.LENGTH_LONG).show();
                 });
     }
 
-    private void createPendingProject(Application application) {
-        Log.d(TAG, "Creating pending project for post: " + application.getPostId());
-        
-        // First, fetch the full post details
-        FirebaseUtil.getPostsCollection()
-                .document(application.getPostId())
-                .get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    Post post = documentSnapshot.toObject(Post.class);
-                    if (post == null) {
-                        Log.e(TAG, "Post not found: " + application.getPostId());
-                        return;
-                    }
-                    
-                    PendingProject project = new PendingProject(
-                            application.getPostId(),
-                            application.getPostTitle(),
-                            post.getDescription(),
-                            post.getAuthorId(),
-                            post.getAuthorName(),
-                            application.getDeveloperId(),
-                            application.getDeveloperName(),
-                            application.getApplicationId()
-                    );
-                    
-                    DocumentReference projectRef = FirebaseUtil.getPendingProjectsCollection().document();
-                    project.setProjectId(projectRef.getId());
-                    
-                    Log.d(TAG, "Saving pending project with ID: " + projectRef.getId());
-                    
-                    projectRef.set(project)
-                            .addOnSuccessListener(aVoid -> {
-                                Log.d(TAG, "Pending project created successfully");
-                            })
-                            .addOnFailureListener(e -> {
-                                Log.e(TAG, "Failed to create pending project: " + e.getMessage(), e);
-                            });
+    private void rejectApplication(Application application) {
+        ApplicationRepository.getInstance().rejectApplications(Collections.singletonList(application))
+                .addOnSuccessListener(aVoid -> {
+                    Toast.makeText(this, "Application rejected", Toast.LENGTH_SHORT).show();
+                    loadStatusCounts();
                 })
                 .addOnFailureListener(e -> {
-                    Log.e(TAG, "Failed to fetch post details: " + e.getMessage(), e);
+                    Toast.makeText(this, "Failed to update status: " + e.getMessage(),
+                        Toast.LENGTH_SHORT).show();
                 });
     }
 
+    // The post as handed over by the detail screen, so accepting doesn't need to read it again
+    private Post getPost() {
+        Post post = new Post();
+        post.setPostId(postId);
+        post.setTitle(postTitle);
+        post.setDescription(getIntent().getStringExtra("postDescription"));
+        post.setAuthorId(getIntent().hasExtra("postAuthorId")
+                ? getIntent().getStringExtra("postAuthorId")
+                : FirebaseUtil.getCurrentUserId()); // Only the author can open this screen
+        post.setAuthorName(getIntent().getStringExtra("postAuthorName"));
+        return post;
+    }
+
     private void showConfirmDialog(String title, String message, Runnable onConfirm) {
+        showConfirmDialog(title, message, null, checked -> onConfirm.run());
+    }
+
+    // optionLabel != null shows a checkbox whose state is passed to onConfirm
+    private void showConfirmDialog(String title, String message, String optionLabel, Consumer<Boolean> onConfirm) {
         Dialog dialog = new Dialog(this);
         dialog.requestWindowFeature(Window.FEATURE_NO_TITLE);
         dialog.setContentView(R.layout.dialog_confirm);
@@ -239,13 +380,18 @@ public class ApplicationsListActivity extends AppCompatActivity {
 
         TextView titleView = dialog.findViewById(R.id.dialogTitle);
         TextView messageView = dialog.findViewById(R.id.dialogMessage);
+        CheckBox optionCheckBox = dialog.findViewById(R.id.optionCheckBox);
 
         titleView.setText(title);
         messageView.setText(message);
+        if (optionLabel != null) {
+            optionCheckBox.setText(optionLabel);
+            optionCheckBox.setVisibility(View.VISIBLE);
+        }
 
         dialog.findViewById(R.id.cancelButton).setOnClickListener(v -> dialog.dismiss());
         dialog.findViewById(R.id.confirmButton).setOnClickListener(v -> {
-            onConfirm.run();
+            onConfirm.accept(optionCheckBox.isChecked());
             dialog.dismiss();
         });
 
@@ -263,7 +409,20 @@ public class ApplicationsListActivity extends AppCompatActivity {
         TextView status = dialog.findViewById(R.id.statusText);
 
         developerName.setText(application.getDeveloperName());
-        proposal.setText(application.getProposal());
+        if (application.getProposal() != null) {
+            proposal.setText(application.getProposal());
+        } else {
+            // Show the preview right away and swap in the full text once it loads
+            proposal.setText(application.previewText());
+            ApplicationRepository.getInstance().loadProposal(application,
+                    (snapshot, fromCache) -> {
+                        String full = snapshot.getString("proposal");
+                        if (full != null) {
+                            proposal.setText(full);
+                        }
+                    },
+                    e -> Log.w(TAG, "Failed to load proposal: " + e.getMessage()));
+        }
         status.setText("Status: " + application.getStatus());
 
         dialog.findViewById(R.id.closeButton).setOnClickListener(v -> dialog.dismiss());
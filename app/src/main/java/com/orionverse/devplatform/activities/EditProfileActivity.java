@@ -1,11 +1,13 @@
 package com.orionverse.devplatform.activities;
 
 import android.Manifest;
+import android.content.Context;
 import android.content.Intent;
 import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.View;
 import android.widget.Button;
 import android.widget.EditText;
@@ -17,20 +19,30 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.content.ContextCompat;
+import androidx.work.WorkInfo;
 
 import com.bumptech.glide.Glide;
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.chip.Chip;
 import com.google.android.material.chip.ChipGroup;
 import com.orionverse.devplatform.R;
-import com.orionverse.devplatform.models.User;
-import com.orionverse.devplatform.utils.CloudinaryUtil;
+import com.orionverse.devplatform.repositories.Outbox;
+import com.orionverse.devplatform.repositories.ProfileImageUploadWorker;
+import com.orionverse.devplatform.repositories.UserRepository;
 import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.utils.ImagePrep;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class EditProfileActivity extends AppCompatActivity {
+    private static final String TAG = "EditProfileActivity";
     private ImageView profileImageView;
     private View changePhotoOverlay;
     private ProgressBar uploadProgressBar;
@@ -41,8 +53,8 @@ public class EditProfileActivity extends AppCompatActivity {
     
     private Uri selectedImageUri;
     private String currentProfileImageUrl = "";
-    private String uploadedImageUrl = null;
-    private boolean isUploading = false;
+    private boolean watchingUpload = false; // An upload started or still running while this screen is open
+    private final ExecutorService imageExecutor = Executors.newSingleThreadExecutor();
     
     // Activity Result Launchers
     private final ActivityResultLauncher<Intent> imagePickerLauncher = registerForActivityResult(
@@ -58,7 +70,7 @@ public class EditProfileActivity extends AppCompatActivity {
                                 .into(profileImageView);
                         
                         // Upload to Cloudinary
-                        uploadImageToCloudinary();
+                        queueImageUpload();
                     }
                 }
             }
@@ -83,6 +95,7 @@ public class EditProfileActivity extends AppCompatActivity {
         initializeViews();
         loadUserData();
         setupListeners();
+        observeImageUpload();
     }
 
     private void initializeViews() {
@@ -108,9 +121,8 @@ public class EditProfileActivity extends AppCompatActivity {
         String userId = FirebaseUtil.getCurrentUserId();
         if (userId == null) return;
 
-        FirebaseUtil.getUsersCollection().document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    User user = documentSnapshot.toObject(User.class);
+        UserRepository.getInstance().getUser(userId)
+                .addOnSuccessListener(user -> {
                     if (user != null) {
                         usernameEditText.setText(user.getUsername());
                         bioEditText.setText(user.getBio());
@@ -130,7 +142,9 @@ public class EditProfileActivity extends AppCompatActivity {
                             displaySkills();
                         }
                     }
-                });
+                })
+                .addOnFailureListener(e -> Toast.makeText(this,
+                        "Couldn't load your profile: " + e.getMessage(), Toast.LENGTH_LONG).show());
     }
 
     private void setupListeners() {
@@ -145,11 +159,6 @@ public class EditProfileActivity extends AppCompatActivity {
     }
     
     private void checkPermissionAndPickImage() {
-        if (isUploading) {
-            Toast.makeText(this, "Please wait for current upload to complete", Toast.LENGTH_SHORT).show();
-            return;
-        }
-        
         // For Android 13+ (API 33+), use READ_MEDIA_IMAGES
         // For older versions, use READ_EXTERNAL_STORAGE
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
@@ -175,7 +184,7 @@ public class EditProfileActivity extends AppCompatActivity {
         imagePickerLauncher.launch(intent);
     }
     
-    private void uploadImageToCloudinary() {
+    private void queueImageUpload() {
         if (selectedImageUri == null) return;
         
         String userId = FirebaseUtil.getCurrentUserId();
@@ -184,61 +193,87 @@ public class EditProfileActivity extends AppCompatActivity {
             return;
         }
         
-        isUploading = true;
+        watchingUpload = true;
         showUploadProgress(true);
-        
-        CloudinaryUtil.uploadProfileImage(this, selectedImageUri, userId, new CloudinaryUtil.CloudinaryUploadCallback() {
-            @Override
-            public void onStart() {
-                runOnUiThread(() -> {
-                    Toast.makeText(EditProfileActivity.this, "Uploading image...", Toast.LENGTH_SHORT).show();
-                });
-            }
 
-            @Override
-            public void onProgress(int progress) {
+        // Shrink the pick to an avatar-sized file first, while the picker's read grant is still valid;
+        // the upload itself runs in WorkManager and outlives this screen
+        Uri source = selectedImageUri;
+        Context appContext = getApplicationContext();
+        imageExecutor.execute(() -> {
+            try {
+                File prepared = ImagePrep.prepareAvatar(appContext, source,
+                        ProfileImageUploadWorker.getUploadDir(appContext));
+                ProfileImageUploadWorker.enqueue(appContext, prepared, userId);
+            } catch (IOException | RuntimeException e) {
+                Log.w(TAG, "Image prep failed: " + e.getMessage());
                 runOnUiThread(() -> {
-                    if (uploadProgressBar != null) {
-                        uploadProgressBar.setProgress(progress);
-                    }
+                    if (isDestroyed()) return;
+                    onUploadFailed("Couldn't read that image");
                 });
             }
+        });
+    }
 
-            @Override
-            public void onSuccess(String imageUrl) {
-                runOnUiThread(() -> {
-                    uploadedImageUrl = imageUrl;
-                    isUploading = false;
-                    showUploadProgress(false);
-                    Toast.makeText(EditProfileActivity.this, "Image uploaded successfully!", Toast.LENGTH_SHORT).show();
-                });
-            }
+    private void observeImageUpload() {
+        String userId = FirebaseUtil.getCurrentUserId();
+        if (userId == null) return;
 
-            @Override
-            public void onError(String error) {
-                runOnUiThread(() -> {
-                    isUploading = false;
+        ProfileImageUploadWorker.observe(this, userId).observe(this, infos -> {
+            if (infos == null || infos.isEmpty()) return;
+            WorkInfo info = infos.get(0);
+            switch (info.getState()) {
+                case ENQUEUED:
+                case BLOCKED:
+                case RUNNING:
+                    // Also picks up an upload started before a rotation or an earlier visit
+                    watchingUpload = true;
+                    showUploadProgress(true);
+                    if (uploadProgressBar != null) {
+                        uploadProgressBar.setProgress(info.getProgress().getInt(ProfileImageUploadWorker.KEY_PROGRESS, 0));
+                    }
+                    break;
+                case SUCCEEDED:
                     showUploadProgress(false);
-                    Toast.makeText(EditProfileActivity.this, "Upload failed: " + error, Toast.LENGTH_LONG).show();
-                    
-                    // Reset to previous image
-                    if (currentProfileImageUrl != null && !currentProfileImageUrl.isEmpty()) {
-                        Glide.with(EditProfileActivity.this)
-                                .load(currentProfileImageUrl)
-                                .circleCrop()
-                                .placeholder(R.drawable.ic_profile_placeholder)
-                                .into(profileImageView);
+                    String imageUrl = info.getOutputData().getString(ProfileImageUploadWorker.KEY_IMAGE_URL);
+                    if (imageUrl != null) {
+                        currentProfileImageUrl = imageUrl;
                     }
-                });
+                    if (watchingUpload) {
+                        watchingUpload = false;
+                        Toast.makeText(this, "Image uploaded successfully!", Toast.LENGTH_SHORT).show();
+                    }
+                    break;
+                case FAILED:
+                    if (watchingUpload) {
+                        onUploadFailed("Upload failed, please try again");
+                    }
+                    break;
+                case CANCELLED:
+                    break;
             }
         });
     }
+
+    private void onUploadFailed(String message) {
+        watchingUpload = false;
+        showUploadProgress(false);
+        Toast.makeText(this, message, Toast.LENGTH_LONG).show();
+
+        // Reset to previous image
+        if (currentProfileImageUrl != null && !currentProfileImageUrl.isEmpty()) {
+            Glide.with(this)
+                    .load(currentProfileImageUrl)
+                    .circleCrop()
+                    .placeholder(R.drawable.ic_profile_placeholder)
+                    .into(profileImageView);
+        }
+    }
     
     private void showUploadProgress(boolean show) {
         if (uploadProgressBar != null) {
             uploadProgressBar.setVisibility(show ? View.VISIBLE : View.GONE);
         }
-        saveButton.setEnabled(!show);
     }
 
     private void addSkill() {
@@ -273,11 +308,6 @@ public class EditProfileActivity extends AppCompatActivity {
     }
 
     private void saveProfile() {
-        if (isUploading) {
-            Toast.makeText(this, "Please wait for image upload to complete", Toast.LENGTH_SHORT).show();
-            return;
-        }
-        
         String username = usernameEditText.getText().toString().trim();
         String bio = bioEditText.getText().toString().trim();
 
@@ -290,22 +320,19 @@ public class EditProfileActivity extends AppCompatActivity {
         if (userId == null) return;
 
         saveButton.setEnabled(false);
-        
-        // Determine which image URL to save
-        String imageUrlToSave = uploadedImageUrl != null ? uploadedImageUrl : currentProfileImageUrl;
-        if (imageUrlToSave == null) {
-            imageUrlToSave = "";
-        }
 
-        FirebaseUtil.getUsersCollection().document(userId)
-                .update(
-                        "username", username,
-                        "bio", bio,
-                        "skills", skills,
-                        "profileImageUrl", imageUrlToSave
-                )
-                .addOnSuccessListener(aVoid -> {
-                    Toast.makeText(this, "Profile updated successfully", Toast.LENGTH_SHORT).show();
+        // profileImageUrl is left out: the upload job writes it when the image lands
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("username", username);
+        fields.put("bio", bio);
+        fields.put("skills", new ArrayList<>(skills));
+
+        // Queued edits are replayed by the Outbox; the latest one wins
+        Outbox.getInstance(this).updateProfile(userId, fields)
+                .addOnSuccessListener(synced -> {
+                    Toast.makeText(this, synced ? "Profile updated successfully"
+                            : "You're offline. Your changes will be saved when you reconnect",
+                            Toast.LENGTH_SHORT).show();
                     finish();
                 })
                 .addOnFailureListener(e -> {
@@ -313,4 +340,10 @@ public class EditProfileActivity extends AppCompatActivity {
                     Toast.makeText(this, "Failed to update profile: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                 });
     }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        imageExecutor.shutdown();
+    }
 }
@@ -27,7 +27,9 @@ import com.orionverse.devplatform.fragments.NotificationsFragment;
 import com.orionverse.devplatform.fragments.PendingProjectsFragment;
 import com.orionverse.devplatform.fragments.ProfileFragment;
 import com.orionverse.devplatform.fragments.SearchFragment;
+import com.orionverse.devplatform.repositories.NotificationRepository;
 import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.utils.SearchIndex;
 import com.orionverse.devplatform.utils.ThemeManager;
 
 public class MainActivity extends AppCompatActivity implements NavigationView.OnNavigationItemSelectedListener {
@@ -85,6 +87,11 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
                 loadFragment(new HomeFragment(), "Home");
                 navigationView.setCheckedItem(R.id.nav_drawer_home);
             }
+
+            observeUnreadNotifications();
+
+            // Keep the on-device search index in step with new posts and users
+            SearchIndex.getInstance(this).startSync();
         } catch (Exception e) {
             android.widget.Toast.makeText(this, "Error: " + e.getMessage(), android.widget.Toast.LENGTH_LONG).show();
         }
@@ -228,24 +235,15 @@ public class MainActivity extends AppCompatActivity implements NavigationView.On
         finish();
     }
 
-    @Override
-    protected void onResume() {
-        super.onResume();
-        checkUnreadNotifications();
-    }
-
-    private void checkUnreadNotifications() {
+    private void observeUnreadNotifications() {
         String userId = FirebaseUtil.getCurrentUserId();
         if (userId == null) return;
 
-        FirebaseUtil.getNotificationsCollection()
-                .whereEqualTo("userId", userId)
-                .whereEqualTo("read", false)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    int unreadCount = querySnapshot.size();
-                    updateNotificationBadge(unreadCount);
-                });
+        // count() aggregate plus a listener on newer notifications, so resuming costs no document reads
+        NotificationRepository.getInstance().getUnreadCount(this, userId)
+                .observe(this, this::updateNotificationBadge);
+        // Events the sender side rate-limited may still be waiting as tallies; deliver them now
+        NotificationRepository.getInstance().flushPending(userId);
     }
 
     private void updateNotificationBadge(int count) {
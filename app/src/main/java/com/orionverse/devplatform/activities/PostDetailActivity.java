@@ -15,14 +15,15 @@ import androidx.appcompat.widget.Toolbar;
 
 import com.google.android.material.appbar.MaterialToolbar;
 import com.google.android.material.button.MaterialButton;
-import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.orionverse.devplatform.R;
-import com.orionverse.devplatform.models.Application;
-import com.orionverse.devplatform.models.Notification;
 import com.orionverse.devplatform.models.Post;
-import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.repositories.ApplicationRepository;
+import com.orionverse.devplatform.repositories.Outbox;
+import com.orionverse.devplatform.repositories.UserRepository;
 import com.orionverse.devplatform.utils.DateUtil;
 import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.utils.SearchIndex;
 
 public class PostDetailActivity extends AppCompatActivity {
     private TextView postTypeBadge, postTitle, authorName, postTime, postDescription;
@@ -63,6 +64,13 @@ public class PostDetailActivity extends AppCompatActivity {
     private void loadPostDetails() {
         FirebaseUtil.getPostsCollection().document(postId).get()
                 .addOnSuccessListener(documentSnapshot -> {
+                    if (!documentSnapshot.exists() && !documentSnapshot.getMetadata().isFromCache()) {
+                        // Deleted since it was indexed; stop offering it in search
+                        SearchIndex.getInstance(this).removePost(postId);
+                        Toast.makeText(this, "This post no longer exists", Toast.LENGTH_SHORT).show();
+                        finish();
+                        return;
+                    }
                     currentPost = documentSnapshot.toObject(Post.class);
                     if (currentPost != null) {
                         currentPost.setPostId(documentSnapshot.getId());
@@ -104,6 +112,9 @@ public class PostDetailActivity extends AppCompatActivity {
         } else if (!isAuthor && isProject) {
             applyButton.setVisibility(View.VISIBLE);
             applyButton.setOnClickListener(v -> showApplyDialog());
+            if (ApplicationRepository.getInstance().isKnownApplied(this, postId, currentUserId)) {
+                showAppliedState();
+            }
         }
     }
 
@@ -111,6 +122,10 @@ public class PostDetailActivity extends AppCompatActivity {
         Intent intent = new Intent(this, ApplicationsListActivity.class);
         intent.putExtra("postId", postId);
         intent.putExtra("postTitle", currentPost.getTitle());
+        // Accepting an application needs these; passing them saves the list screen a post read
+        intent.putExtra("postDescription", currentPost.getDescription());
+        intent.putExtra("postAuthorId", currentPost.getAuthorId());
+        intent.putExtra("postAuthorName", currentPost.getAuthorName());
         startActivity(intent);
     }
 
@@ -122,17 +137,15 @@ public class PostDetailActivity extends AppCompatActivity {
             return;
         }
 
-        // Check if already applied
-        FirebaseUtil.getApplicationsCollection()
-                .whereEqualTo("postId", postId)
-                .whereEqualTo("developerId", currentUserId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
+        // Local applied-posts set first, otherwise one lookup of {postId}_{userId}
+        ApplicationRepository.getInstance().hasApplied(this, postId, currentUserId)
+                .addOnSuccessListener(applied -> {
+                    if (applied) {
                         Toast.makeText(this, "You have already applied to this post", Toast.LENGTH_SHORT).show();
+                        showAppliedState();
                         return;
                     }
-                    
+
                     // Show dialog
                     showApplicationDialog(currentUserId);
                 })
@@ -171,53 +184,36 @@ public class PostDetailActivity extends AppCompatActivity {
         dialog.show();
     }
 
+    private void showAppliedState() {
+        applyButton.setEnabled(false);
+        applyButton.setText("Applied");
+    }
+
     private void submitApplication(String currentUserId, String proposal) {
-        android.util.Log.d("PostDetailActivity", "=== STARTING APPLICATION SUBMISSION ===");
-        android.util.Log.d("PostDetailActivity", "Current User ID: " + currentUserId);
-        android.util.Log.d("PostDetailActivity", "Post ID: " + postId);
-        android.util.Log.d("PostDetailActivity", "Post Owner ID: " + currentPost.getAuthorId());
-        
-        // Get current user's name
-        FirebaseUtil.getUsersCollection().document(currentUserId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    User user = documentSnapshot.toObject(User.class);
+        UserRepository.getInstance().getUser(currentUserId)
+                .addOnSuccessListener(user -> {
                     if (user == null) {
                         Toast.makeText(this, "Error loading user profile", Toast.LENGTH_SHORT).show();
                         return;
                     }
 
-                    // Create application
-                    Application application = new Application(
-                            postId,
-                            currentPost.getTitle(),
-                            currentUserId,
-                            user.getUsername(),
-                            proposal
-                    );
-
-                    // Save to Firestore
-                    DocumentReference appRef = FirebaseUtil.getApplicationsCollection().document();
-                    application.setApplicationId(appRef.getId());
-
-                    appRef.set(application)
-                            .addOnSuccessListener(aVoid -> {
-                                android.util.Log.d("PostDetailActivity", "Application saved to Firestore successfully");
-                                
-                                // Update post's application count
-                                FirebaseUtil.getPostsCollection().document(postId)
-                                        .update("applicationsCount", currentPost.getApplicationsCount() + 1)
-                                        .addOnSuccessListener(aVoid1 -> {
-                                            android.util.Log.d("PostDetailActivity", "Application count updated");
-                                            Toast.makeText(this, "Application submitted successfully!", Toast.LENGTH_SHORT).show();
-                                            applyButton.setEnabled(false);
-                                            applyButton.setText("Applied");
-                                            
-                                            android.util.Log.d("PostDetailActivity", ">>> NOW SENDING NOTIFICATION TO POST OWNER <<<");
-                                            // Notify post owner about new application
-                                            sendApplicationNotificationToPostOwner(user.getUsername(), currentPost);
-                                        });
+                    // Application, applicationsCount and owner notification commit together;
+                    // the Outbox keeps it and retries if the connection is down
+                    Outbox.getInstance(this).submitApplication(currentPost, user, proposal)
+                            .addOnSuccessListener(synced -> {
+                                Toast.makeText(this, synced ? "Application submitted successfully!"
+                                        : "You're offline. Your application will be sent when you reconnect",
+                                        Toast.LENGTH_SHORT).show();
+                                showAppliedState();
                             })
                             .addOnFailureListener(e -> {
+                                if (e instanceof FirebaseFirestoreException && ((FirebaseFirestoreException) e).getCode()
+                                        == FirebaseFirestoreException.Code.ALREADY_EXISTS) {
+                                    Toast.makeText(this, "You have already applied to this post", Toast.LENGTH_SHORT).show();
+                                    showAppliedState();
+                                    return;
+                                }
+                                android.util.Log.e("PostDetailActivity", "Application submission failed", e);
                                 Toast.makeText(this, "Failed to submit application: " + e.getMessage(), Toast.LENGTH_LONG).show();
                             });
                 })
@@ -225,29 +221,4 @@ public class PostDetailActivity extends AppCompatActivity {
                     Toast.makeText(this, "Error loading user profile", Toast.LENGTH_SHORT).show();
                 });
     }
-
-    private void sendApplicationNotificationToPostOwner(String applicantName, Post post) {
-        android.util.Log.d("PostDetailActivity", "Preparing to send notification to post owner: " + post.getAuthorId());
-        
-        Notification notification = new Notification(
-                post.getAuthorId(),
-                Notification.NotificationType.APPLICATION,
-                "New Application",
-                applicantName + " applied to your post: " + post.getTitle(),
-                post.getPostId()
-        );
-        
-        android.util.Log.d("PostDetailActivity", "Notification created - userId: " + notification.getUserId() 
-                + ", type: " + notification.getType() 
-                + ", title: " + notification.getTitle());
-        
-        FirebaseUtil.getNotificationsCollection()
-                .add(notification)
-                .addOnSuccessListener(documentReference -> {
-                    android.util.Log.d("PostDetailActivity", "✅ Notification sent successfully to post owner! Doc ID: " + documentReference.getId());
-                })
-                .addOnFailureListener(e -> {
-                    android.util.Log.e("PostDetailActivity", "❌ Failed to send notification to post owner", e);
-                });
-    }
 }
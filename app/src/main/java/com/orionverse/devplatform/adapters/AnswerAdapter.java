@@ -16,14 +16,13 @@ import com.orionverse.devplatform.models.Answer;
 import com.orionverse.devplatform.utils.FirebaseUtil;
 
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 
-public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerViewHolder> {
+public class AnswerAdapter extends DiffingAdapter<Answer, AnswerAdapter.AnswerViewHolder> {
     
-    private List<Answer> answers = new ArrayList<>();
     private SimpleDateFormat dateFormat = new SimpleDateFormat("MMM dd, yyyy HH:mm", Locale.getDefault());
     private OnAnswerActionListener actionListener;
     
@@ -37,29 +36,59 @@ public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerView
     }
 
     public void setAnswers(List<Answer> answers) {
-        this.answers = answers;
-        notifyDataSetChanged();
+        submitList(answers);
     }
 
     public void addAnswer(Answer answer) {
+        List<Answer> answers = getSourceList();
         answers.add(0, answer); // Add at top
-        notifyItemInserted(0);
+        submitList(answers);
     }
     
     public void removeAnswer(int position) {
-        if (position >= 0 && position < answers.size()) {
-            answers.remove(position);
-            notifyItemRemoved(position);
+        List<Answer> answers = getSourceList();
+        int index = indexInSource(answers, position);
+        if (index >= 0) {
+            answers.remove(index);
+            submitList(answers);
         }
     }
     
     public void updateAnswer(int position, Answer answer) {
-        if (position >= 0 && position < answers.size()) {
-            answers.set(position, answer);
-            notifyItemChanged(position);
+        List<Answer> answers = getSourceList();
+        int index = indexInSource(answers, position);
+        if (index >= 0) {
+            answers.set(index, answer);
+            submitList(answers);
         }
     }
 
+    // Positions come from the displayed list; map them by key onto the (possibly newer) source list
+    private int indexInSource(List<Answer> answers, int position) {
+        if (position < 0 || position >= getItemCount()) return -1;
+        String key = getItemKey(getItem(position));
+        for (int i = 0; i < answers.size(); i++) {
+            if (getItemKey(answers.get(i)).equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @NonNull
+    @Override
+    protected String getItemKey(@NonNull Answer answer) {
+        return answer.getAnswerId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull Answer oldAnswer, @NonNull Answer newAnswer) {
+        return Objects.equals(oldAnswer.getAuthorName(), newAnswer.getAuthorName())
+                && Objects.equals(oldAnswer.getContent(), newAnswer.getContent())
+                && Objects.equals(oldAnswer.getCreatedAt(), newAnswer.getCreatedAt())
+                && Objects.equals(oldAnswer.getAuthorId(), newAnswer.getAuthorId());
+    }
+
     @NonNull
     @Override
     public AnswerViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
@@ -70,13 +99,8 @@ public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerView
 
     @Override
     public void onBindViewHolder(@NonNull AnswerViewHolder holder, int position) {
-        Answer answer = answers.get(position);
-        holder.bind(answer, position);
-    }
-
-    @Override
-    public int getItemCount() {
-        return answers.size();
+        Answer answer = getItem(position);
+        holder.bind(answer);
     }
 
     class AnswerViewHolder extends RecyclerView.ViewHolder {
@@ -97,7 +121,7 @@ public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerView
             deleteButton = itemView.findViewById(R.id.deleteButton);
         }
 
-        public void bind(Answer answer, int position) {
+        public void bind(Answer answer) {
             if (authorName != null) authorName.setText(answer.getAuthorName() != null ? answer.getAuthorName() : "Unknown");
             if (answerContent != null) answerContent.setText(answer.getContent() != null ? answer.getContent() : "");
             
@@ -121,7 +145,9 @@ public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerView
             
             if (editButton != null && isAuthor) {
                 editButton.setOnClickListener(v -> {
-                    if (actionListener != null) {
+                    // Positions shift as diffs are applied, so resolve it at click time
+                    int position = getBindingAdapterPosition();
+                    if (actionListener != null && position != RecyclerView.NO_POSITION) {
                         actionListener.onEditClick(answer, position);
                     }
                 });
@@ -129,7 +155,8 @@ public class AnswerAdapter extends RecyclerView.Adapter<AnswerAdapter.AnswerView
             
             if (deleteButton != null && isAuthor) {
                 deleteButton.setOnClickListener(v -> {
-                    if (actionListener != null) {
+                    int position = getBindingAdapterPosition();
+                    if (actionListener != null && position != RecyclerView.NO_POSITION) {
                         actionListener.onDeleteClick(answer, position);
                     }
                 });
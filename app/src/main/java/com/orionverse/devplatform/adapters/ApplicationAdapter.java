@@ -2,6 +2,7 @@ package com.orionverse.devplatform.adapters;
 
 import android.content.Context;
 import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -16,12 +17,17 @@ import com.orionverse.devplatform.models.Application;
 import com.orionverse.devplatform.utils.DateUtil;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
-public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.ApplicationViewHolder> {
+public class ApplicationAdapter extends DiffingAdapter<Application, ApplicationAdapter.ApplicationViewHolder> {
     private Context context;
-    private List<Application> applications;
     private OnApplicationActionListener listener;
+    private OnSelectionChangedListener selectionListener;
+    private final Set<String> selectedIds = new HashSet<>(); // Application IDs, only PENDING ones
+    private boolean selectionMode = false;
 
     public interface OnApplicationActionListener {
         void onAccept(Application application);
@@ -29,18 +35,107 @@ public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.
         void onViewDetails(Application application);
     }
 
+    public interface OnSelectionChangedListener {
+        void onSelectionChanged(int selectedCount);
+    }
+
     public ApplicationAdapter(Context context) {
         this.context = context;
-        this.applications = new ArrayList<>();
     }
 
     public void setOnApplicationActionListener(OnApplicationActionListener listener) {
         this.listener = listener;
     }
 
+    public void setOnSelectionChangedListener(OnSelectionChangedListener selectionListener) {
+        this.selectionListener = selectionListener;
+    }
+
     public void setApplications(List<Application> applications) {
-        this.applications = applications;
-        notifyDataSetChanged();
+        // Drop selections whose application went away or is no longer pending
+        Set<String> stillSelectable = new HashSet<>();
+        for (Application application : applications) {
+            if (selectedIds.contains(application.getApplicationId()) && isSelectable(application)) {
+                stillSelectable.add(application.getApplicationId());
+            }
+        }
+        boolean selectionChanged = stillSelectable.size() != selectedIds.size();
+        selectedIds.retainAll(stillSelectable);
+        submitList(applications);
+        if (selectionChanged) {
+            notifyItemRangeChanged(0, getItemCount());
+            dispatchSelectionChanged();
+        }
+    }
+
+    // Multi-select: long press starts it, taps toggle while it's on
+    public boolean isSelectionMode() {
+        return selectionMode;
+    }
+
+    public void startSelection(Application first) {
+        selectionMode = true;
+        toggleSelection(first);
+        notifyItemRangeChanged(0, getItemCount());
+    }
+
+    public void clearSelection() {
+        selectionMode = false;
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount());
+        dispatchSelectionChanged();
+    }
+
+    public void selectAllPending() {
+        for (Application application : getCurrentList()) {
+            if (isSelectable(application)) {
+                selectedIds.add(application.getApplicationId());
+            }
+        }
+        notifyItemRangeChanged(0, getItemCount());
+        dispatchSelectionChanged();
+    }
+
+    public List<Application> getSelectedApplications() {
+        List<Application> selected = new ArrayList<>();
+        for (Application application : getCurrentList()) {
+            if (selectedIds.contains(application.getApplicationId())) {
+                selected.add(application);
+            }
+        }
+        return selected;
+    }
+
+    private void toggleSelection(Application application) {
+        if (!isSelectable(application)) return;
+        if (!selectedIds.remove(application.getApplicationId())) {
+            selectedIds.add(application.getApplicationId());
+        }
+        dispatchSelectionChanged();
+    }
+
+    private boolean isSelectable(Application application) {
+        return application.getStatusEnum() == Application.ApplicationStatus.PENDING;
+    }
+
+    private void dispatchSelectionChanged() {
+        if (selectionListener != null) {
+            selectionListener.onSelectionChanged(selectedIds.size());
+        }
+    }
+
+    @NonNull
+    @Override
+    protected String getItemKey(@NonNull Application application) {
+        return application.getApplicationId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull Application oldApp, @NonNull Application newApp) {
+        return Objects.equals(oldApp.getDeveloperName(), newApp.getDeveloperName())
+                && Objects.equals(oldApp.getAppliedAt(), newApp.getAppliedAt())
+                && Objects.equals(oldApp.previewText(), newApp.previewText())
+                && Objects.equals(oldApp.getStatus(), newApp.getStatus());
     }
 
     @NonNull
@@ -52,15 +147,10 @@ public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.
 
     @Override
     public void onBindViewHolder(@NonNull ApplicationViewHolder holder, int position) {
-        Application application = applications.get(position);
+        Application application = getItem(position);
         holder.bind(application);
     }
 
-    @Override
-    public int getItemCount() {
-        return applications.size();
-    }
-
     class ApplicationViewHolder extends RecyclerView.ViewHolder {
         TextView developerName, appliedTime, proposal, statusBadge;
         MaterialButton acceptButton, rejectButton;
@@ -80,7 +170,7 @@ public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.
         public void bind(Application application) {
             developerName.setText(application.getDeveloperName());
             appliedTime.setText(DateUtil.getRelativeTime(application.getAppliedAt()));
-            proposal.setText(application.getProposal());
+            proposal.setText(application.previewText());
 
             // Set status badge
             String status = application.getStatus();
@@ -88,7 +178,8 @@ public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.
 
             if (status.equals("PENDING")) {
                 statusBadge.setBackgroundColor(context.getResources().getColor(R.color.warning_color));
-                actionButtons.setVisibility(View.VISIBLE);
+                // Per-row buttons are replaced by the bulk actions while selecting
+                actionButtons.setVisibility(selectionMode ? View.GONE : View.VISIBLE);
             } else if (status.equals("ACCEPTED")) {
                 statusBadge.setBackgroundColor(context.getResources().getColor(R.color.success_color));
                 actionButtons.setVisibility(View.GONE);
@@ -110,11 +201,29 @@ public class ApplicationAdapter extends RecyclerView.Adapter<ApplicationAdapter.
                 }
             });
 
+            boolean selected = selectedIds.contains(application.getApplicationId());
+            itemView.setActivated(selected);
+            itemView.setForeground(selected
+                    ? new ColorDrawable(context.getResources().getColor(R.color.primary_light) & 0x66FFFFFF)
+                    : null);
+
             itemView.setOnClickListener(v -> {
-                if (listener != null) {
+                if (selectionMode) {
+                    toggleSelection(application);
+                    int position = getBindingAdapterPosition();
+                    if (position != RecyclerView.NO_POSITION) {
+                        notifyItemChanged(position);
+                    }
+                } else if (listener != null) {
                     listener.onViewDetails(application);
                 }
             });
+
+            itemView.setOnLongClickListener(v -> {
+                if (selectionMode || !isSelectable(application)) return false;
+                startSelection(application);
+                return true;
+            });
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.orionverse.devplatform.adapters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Base adapter for Firestore-backed lists. Diffs are computed off the main thread by
+// AsyncListDiffer and only the minimal insert/remove/move/change ops are dispatched.
+// Items must not be mutated after being submitted; submit a new copy instead.
+public abstract class DiffingAdapter<T, VH extends RecyclerView.ViewHolder> extends RecyclerView.Adapter<VH> {
+    private final AsyncListDiffer<T> differ;
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 1;
+    private List<T> source = new ArrayList<>(); // Last list submitted; may be ahead of what's displayed
+
+    protected DiffingAdapter() {
+        differ = new AsyncListDiffer<>(this, new DiffUtil.ItemCallback<T>() {
+            @Override
+            public boolean areItemsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return getItemKey(oldItem).equals(getItemKey(newItem));
+            }
+
+            @Override
+            public boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem) {
+                return DiffingAdapter.this.areContentsTheSame(oldItem, newItem);
+            }
+        });
+        // Forget IDs of items that are gone once the new list is on screen, not before: the old
+        // list is still displayed (and asked for IDs) while the diff runs
+        differ.addListListener((previous, current) -> pruneStableIds(current));
+        setHasStableIds(true);
+    }
+
+    // Document ID (or other unique key) identifying the item across refreshes
+    @NonNull
+    protected abstract String getItemKey(@NonNull T item);
+
+    // Whether the row would render identically for both versions of the item
+    protected abstract boolean areContentsTheSame(@NonNull T oldItem, @NonNull T newItem);
+
+    public void submitList(@Nullable List<T> items) {
+        submitList(items, null);
+    }
+
+    public void submitList(@Nullable List<T> items, @Nullable Runnable commitCallback) {
+        // Always hand the differ its own copy so later changes to the caller's list can't leak in
+        source = items == null ? new ArrayList<>() : new ArrayList<>(items);
+        differ.submitList(items == null ? null : new ArrayList<>(items), commitCallback);
+    }
+
+    // Copy of the latest submitted list. Mutate this and submit it back, rather than
+    // getCurrentList(), which lags behind while a previous diff is still being computed
+    @NonNull
+    protected List<T> getSourceList() {
+        return new ArrayList<>(source);
+    }
+
+    @NonNull
+    public List<T> getCurrentList() {
+        return differ.getCurrentList();
+    }
+
+    protected T getItem(int position) {
+        return differ.getCurrentList().get(position);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    private void pruneStableIds(List<T> current) {
+        if (stableIds.size() <= current.size()) return;
+        Map<String, Long> kept = new HashMap<>();
+        for (T item : current) {
+            String key = getItemKey(item);
+            Long id = stableIds.get(key);
+            if (id != null) {
+                kept.put(key, id);
+            }
+        }
+        stableIds.clear();
+        stableIds.putAll(kept);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String key = getItemKey(getItem(position));
+        Long id = stableIds.get(key);
+        if (id == null) {
+            id = nextStableId++;
+            stableIds.put(key, id);
+        }
+        return id;
+    }
+}
@@ -18,13 +18,12 @@ import com.orionverse.devplatform.activities.PostDetailActivity;
 import com.orionverse.devplatform.models.Post;
 import com.orionverse.devplatform.utils.DateUtil;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
-public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
+public class PostAdapter extends DiffingAdapter<Post, PostAdapter.PostViewHolder> {
     private static final String TAG = "PostAdapter";
     private Context context;
-    private List<Post> posts;
     private OnPostClickListener listener;
 
     public interface OnPostClickListener {
@@ -33,7 +32,6 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
 
     public PostAdapter(Context context) {
         this.context = context;
-        this.posts = new ArrayList<>();
     }
 
     public void setOnPostClickListener(OnPostClickListener listener) {
@@ -42,8 +40,23 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
 
     public void setPosts(List<Post> posts) {
         Log.d(TAG, "setPosts: Setting " + posts.size() + " posts");
-        this.posts = posts;
-        notifyDataSetChanged();
+        submitList(posts);
+    }
+
+    @NonNull
+    @Override
+    protected String getItemKey(@NonNull Post post) {
+        return post.getPostId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull Post oldPost, @NonNull Post newPost) {
+        return Objects.equals(oldPost.getTitle(), newPost.getTitle())
+                && Objects.equals(oldPost.getDescription(), newPost.getDescription())
+                && Objects.equals(oldPost.getAuthorName(), newPost.getAuthorName())
+                && Objects.equals(oldPost.getPostType(), newPost.getPostType())
+                && Objects.equals(oldPost.getCreatedAt(), newPost.getCreatedAt())
+                && oldPost.isPending() == newPost.isPending();
     }
 
     @NonNull
@@ -56,16 +69,11 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
 
     @Override
     public void onBindViewHolder(@NonNull PostViewHolder holder, int position) {
-        Post post = posts.get(position);
+        Post post = getItem(position);
         Log.d(TAG, "onBindViewHolder: BINDING position " + position);
         holder.bind(post);
     }
 
-    @Override
-    public int getItemCount() {
-        return posts.size();
-    }
-
     class PostViewHolder extends RecyclerView.ViewHolder {
         TextView postTypeBadge, postTitle, postDescription, authorName, postTime;
 
@@ -82,7 +90,9 @@ public class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder
             postTitle.setText(post.getTitle());
             postDescription.setText(post.getDescription());
             authorName.setText(post.getAuthorName());
-            postTime.setText(DateUtil.getRelativeTime(post.getCreatedAt()));
+            // Optimistic row for a post still in the Outbox: dimmed until the server has it
+            postTime.setText(post.isPending() ? "Waiting to send" : DateUtil.getRelativeTime(post.getCreatedAt()));
+            itemView.setAlpha(post.isPending() ? 0.6f : 1f);
 
             // Set post type badge
             String type = post.getPostType();
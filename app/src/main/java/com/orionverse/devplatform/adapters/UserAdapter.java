@@ -0,0 +1,147 @@
+package com.orionverse.devplatform.adapters;
+
+import android.content.Context;
+import android.graphics.drawable.Drawable;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestBuilder;
+import com.orionverse.devplatform.R;
+import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.utils.ImagePreloader;
+import com.orionverse.devplatform.utils.InitialsAvatar;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+public class UserAdapter extends DiffingAdapter<User, UserAdapter.UserViewHolder>
+        implements ImagePreloader.RequestProvider {
+    private static final int AVATAR_SIZE_DP = 48; // Matches userAvatar in item_user.xml
+    private Context context;
+    private OnUserClickListener listener;
+    private final int avatarSizePx;
+
+    public interface OnUserClickListener {
+        void onUserClick(User user);
+    }
+
+    public UserAdapter(Context context) {
+        this.context = context;
+        this.avatarSizePx = Math.round(AVATAR_SIZE_DP * context.getResources().getDisplayMetrics().density);
+    }
+
+    public void setOnUserClickListener(OnUserClickListener listener) {
+        this.listener = listener;
+    }
+
+    public void setUsers(List<User> users) {
+        submitList(users);
+    }
+
+    @NonNull
+    @Override
+    protected String getItemKey(@NonNull User user) {
+        return user.getUserId();
+    }
+
+    @Override
+    protected boolean areContentsTheSame(@NonNull User oldUser, @NonNull User newUser) {
+        return Objects.equals(oldUser.getUsername(), newUser.getUsername())
+                && Objects.equals(oldUser.getProfileImageUrl(), newUser.getProfileImageUrl())
+                && Objects.equals(oldUser.getSkills(), newUser.getSkills())
+                && oldUser.getAverageRating() == newUser.getAverageRating()
+                && oldUser.getTotalRatings() == newUser.getTotalRatings();
+    }
+
+    @NonNull
+    @Override
+    public UserViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(context).inflate(R.layout.item_user, parent, false);
+        return new UserViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull UserViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
+
+    // Cancel the avatar load of a row that scrolled away instead of letting it finish into a recycled view
+    @Override
+    public void onViewRecycled(@NonNull UserViewHolder holder) {
+        super.onViewRecycled(holder);
+        Glide.with(context).clear(holder.userAvatar);
+    }
+
+    @Nullable
+    @Override
+    public RequestBuilder<?> getPreloadRequest(int position) {
+        if (position < 0 || position >= getItemCount()) return null;
+        String url = getItem(position).getProfileImageUrl();
+        return url == null || url.isEmpty() ? null : avatarRequest(url);
+    }
+
+    // Fixed override size, so the bind and the preload resolve to the same cache entry
+    private RequestBuilder<Drawable> avatarRequest(String url) {
+        return Glide.with(context)
+                .load(url)
+                .circleCrop()
+                .override(avatarSizePx)
+                .placeholder(R.drawable.ic_profile_placeholder)
+                .error(R.drawable.ic_profile_placeholder);
+    }
+
+    class UserViewHolder extends RecyclerView.ViewHolder {
+        ImageView userAvatar;
+        TextView username, userSkills, userRating;
+
+        public UserViewHolder(@NonNull View itemView) {
+            super(itemView);
+            userAvatar = itemView.findViewById(R.id.userAvatar);
+            username = itemView.findViewById(R.id.username);
+            userSkills = itemView.findViewById(R.id.userSkills);
+            userRating = itemView.findViewById(R.id.userRating);
+        }
+
+        public void bind(User user) {
+            username.setText(user.getUsername());
+
+            if (user.getSkills() != null && !user.getSkills().isEmpty()) {
+                userSkills.setText(String.join(", ", user.getSkills()));
+            } else {
+                userSkills.setText("No skills added yet");
+            }
+
+            if (user.getTotalRatings() > 0) {
+                userRating.setText(String.format(Locale.getDefault(), "★ %.1f", user.getAverageRating()));
+            } else {
+                userRating.setText("");
+            }
+
+            String imageUrl = user.getProfileImageUrl();
+            if (imageUrl == null || imageUrl.isEmpty()) {
+                // No image to fetch: bind the cached initials bitmap directly, but first drop any
+                // request this recycled view still has running for a previous user
+                Glide.with(context).clear(userAvatar);
+                userAvatar.setImageBitmap(InitialsAvatar.get(user.getUserId(), user.getUsername(), avatarSizePx));
+            } else {
+                // CloudinaryUrlLoader requests a 48dp-sized variant, so no separate thumbnail pass is needed
+                avatarRequest(imageUrl).into(userAvatar);
+            }
+
+            itemView.setOnClickListener(v -> {
+                if (listener != null) {
+                    listener.onUserClick(user);
+                }
+            });
+        }
+    }
+}
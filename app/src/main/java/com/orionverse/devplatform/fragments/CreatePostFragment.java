@@ -17,7 +17,8 @@ import com.google.android.material.button.MaterialButton;
 import com.google.firebase.Timestamp;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.models.Post;
-import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.repositories.Outbox;
+import com.orionverse.devplatform.repositories.UserRepository;
 import com.orionverse.devplatform.utils.FirebaseUtil;
 import com.orionverse.devplatform.utils.ValidationUtil;
 
@@ -55,9 +56,8 @@ public class CreatePostFragment extends Fragment {
     private void loadCurrentUser() {
         String userId = FirebaseUtil.getCurrentUserId();
         if (userId != null) {
-            FirebaseUtil.getUsersCollection().document(userId).get()
-                    .addOnSuccessListener(documentSnapshot -> {
-                        User user = documentSnapshot.toObject(User.class);
+            UserRepository.getInstance().getUser(userId)
+                    .addOnSuccessListener(user -> {
                         if (user != null) {
                             currentUsername = user.getUsername();
                         }
@@ -118,14 +118,18 @@ public class CreatePostFragment extends Fragment {
     private void savePost(Post post) {
         setLoading(true);
 
-        FirebaseUtil.getPostsCollection()
-                .add(post)
-                .addOnSuccessListener(documentReference -> {
+        // Goes through the Outbox so a post written offline is kept and sent once there is network
+        Outbox.getInstance(requireContext()).createPost(post)
+                .addOnSuccessListener(synced -> {
+                    if (!isAdded()) return;
                     setLoading(false);
-                    Toast.makeText(getContext(), "Post created successfully!", Toast.LENGTH_SHORT).show();
+                    Toast.makeText(getContext(), synced ? "Post created successfully!"
+                            : "You're offline. Your post will be published when you reconnect",
+                            Toast.LENGTH_SHORT).show();
                     clearForm();
                 })
                 .addOnFailureListener(e -> {
+                    if (!isAdded()) return;
                     setLoading(false);
                     Toast.makeText(getContext(), "Failed to create post: " + e.getMessage(),
                             Toast.LENGTH_SHORT).show();
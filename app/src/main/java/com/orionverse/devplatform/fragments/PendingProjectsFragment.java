@@ -20,16 +20,16 @@ import com.google.firebase.Timestamp;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.adapters.PendingProjectAdapter;
 import com.orionverse.devplatform.models.PendingProject;
+import com.orionverse.devplatform.repositories.PagedQueryLiveData;
+import com.orionverse.devplatform.repositories.ProjectRepository;
 import com.orionverse.devplatform.utils.FirebaseUtil;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class PendingProjectsFragment extends Fragment {
     private RecyclerView projectsRecyclerView;
     private PendingProjectAdapter adapter;
     private ProgressBar progressBar;
     private View emptyState;
+    private PagedQueryLiveData<PendingProject> projects;
 
     @Nullable
     @Override
@@ -38,11 +38,17 @@ public class PendingProjectsFragment extends Fragment {
 
         initializeViews(view);
         setupRecyclerView();
-        loadProjects();
 
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Observers are bound to the view lifecycle, which only exists once onCreateView returns
+        loadProjects();
+    }
+
     private void initializeViews(View view) {
         projectsRecyclerView = view.findViewById(R.id.projectsRecyclerView);
         progressBar = view.findViewById(R.id.progressBar);
@@ -65,6 +71,18 @@ public class PendingProjectsFragment extends Fragment {
                 showCompletionConfirmDialog(project);
             }
         });
+
+        // Grow the listened window by a page when the user nears the end of the list
+        projectsRecyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (projects != null && dy > 0 && layoutManager != null
+                        && layoutManager.findLastVisibleItemPosition() >= adapter.getItemCount() - 5) {
+                    projects.loadMore();
+                }
+            }
+        });
     }
 
     private void loadProjects() {
@@ -75,35 +93,27 @@ public class PendingProjectsFragment extends Fragment {
         projectsRecyclerView.setVisibility(View.GONE);
         emptyState.setVisibility(View.GONE);
 
-        // Load projects where user is either developer or author
-        FirebaseUtil.getPendingProjectsCollection()
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    progressBar.setVisibility(View.GONE);
-
-                    List<PendingProject> projects = new ArrayList<>();
-                    querySnapshot.forEach(doc -> {
-                        PendingProject project = doc.toObject(PendingProject.class);
-                        project.setProjectId(doc.getId());
-                        
-                        // Include if user is developer or author
-                        if (project.getDeveloperId().equals(currentUserId) || 
-                            project.getAuthorId().equals(currentUserId)) {
-                            projects.add(project);
-                        }
-                    });
-
-                    if (projects.isEmpty()) {
-                        emptyState.setVisibility(View.VISIBLE);
-                    } else {
-                        projectsRecyclerView.setVisibility(View.VISIBLE);
-                        adapter.setProjects(projects);
-                    }
-                })
-                .addOnFailureListener(e -> {
-                    progressBar.setVisibility(View.GONE);
-                    Toast.makeText(getContext(), "Failed to load projects", Toast.LENGTH_SHORT).show();
-                });
+        // Only this user's projects, via the participants index. The repository keeps one
+        // snapshot listener alive, so coming back to this screen re-renders without new reads
+        ProjectRepository repository = ProjectRepository.getInstance();
+        repository.migrateLegacyProjects(requireContext(), currentUserId);
+        projects = repository.getProjectsForUser(currentUserId);
+        projects.observe(getViewLifecycleOwner(), list -> {
+            progressBar.setVisibility(View.GONE);
+
+            if (list.isEmpty()) {
+                projectsRecyclerView.setVisibility(View.GONE);
+                emptyState.setVisibility(View.VISIBLE);
+            } else {
+                emptyState.setVisibility(View.GONE);
+                projectsRecyclerView.setVisibility(View.VISIBLE);
+                adapter.setProjects(list);
+            }
+        });
+        projects.getErrors().observe(getViewLifecycleOwner(), e -> {
+            progressBar.setVisibility(View.GONE);
+            Toast.makeText(getContext(), "Failed to load projects", Toast.LENGTH_SHORT).show();
+        });
     }
 
     private void showCompletionConfirmDialog(PendingProject project) {
@@ -133,7 +143,6 @@ public class PendingProjectsFragment extends Fragment {
                 .update("status", "COMPLETED", "completedAt", Timestamp.now())
                 .addOnSuccessListener(aVoid -> {
                     Toast.makeText(getContext(), "Project marked as completed!", Toast.LENGTH_SHORT).show();
-                    loadProjects();
                 })
                 .addOnFailureListener(e -> {
                     Toast.makeText(getContext(), "Failed to update project", Toast.LENGTH_SHORT).show();
@@ -162,12 +171,4 @@ public class PendingProjectsFragment extends Fragment {
 
         dialog.show();
     }
-
-    @Override
-    public void onResume() {
-        super.onResume();
-        if (adapter != null) {
-            loadProjects();
-        }
-    }
 }
@@ -17,15 +17,16 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
 import com.google.android.material.button.MaterialButton;
-import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.activities.ApplicationsListActivity;
-import com.orionverse.devplatform.models.Application;
-import com.orionverse.devplatform.models.Notification;
 import com.orionverse.devplatform.models.Post;
-import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.repositories.ApplicationRepository;
+import com.orionverse.devplatform.repositories.Outbox;
+import com.orionverse.devplatform.repositories.UserRepository;
 import com.orionverse.devplatform.utils.DateUtil;
 import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.utils.SearchIndex;
 
 public class PostDetailFragment extends Fragment {
     private TextView postTypeBadge, postTitle, authorName, postTime, postDescription;
@@ -75,15 +76,26 @@ public class PostDetailFragment extends Fragment {
     }
 
     private void loadPostDetails() {
-        FirebaseUtil.getPostsCollection().document(postId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    currentPost = documentSnapshot.toObject(Post.class);
-                    if (currentPost != null) {
+        // Paint from the disk cache first, then refresh once the server answers
+        FirebaseUtil.getCacheThenServer(FirebaseUtil.getPostsCollection().document(postId),
+                (documentSnapshot, fromCache) -> {
+                    if (!isAdded()) return;
+                    if (!fromCache && !documentSnapshot.exists()) {
+                        // Deleted since it was indexed; stop offering it in search
+                        SearchIndex.getInstance(requireContext()).removePost(postId);
+                        Toast.makeText(getContext(), "This post no longer exists", Toast.LENGTH_SHORT).show();
+                        navigateBack();
+                        return;
+                    }
+                    Post post = documentSnapshot.toObject(Post.class);
+                    if (post != null) {
+                        currentPost = post;
                         currentPost.setPostId(documentSnapshot.getId());
                         displayPost();
                     }
-                })
-                .addOnFailureListener(e -> {
+                },
+                e -> {
+                    if (!isAdded()) return;
                     Toast.makeText(getContext(), "Failed to load post", Toast.LENGTH_SHORT).show();
                     navigateBack();
                 });
@@ -118,6 +130,9 @@ public class PostDetailFragment extends Fragment {
         } else if (!isAuthor && isProblem) {
             applyButton.setVisibility(View.VISIBLE);
             applyButton.setOnClickListener(v -> showApplyDialog());
+            if (ApplicationRepository.getInstance().isKnownApplied(requireContext(), postId, currentUserId)) {
+                showAppliedState();
+            }
         }
     }
 
@@ -125,6 +140,10 @@ public class PostDetailFragment extends Fragment {
         Intent intent = new Intent(getContext(), ApplicationsListActivity.class);
         intent.putExtra("postId", postId);
         intent.putExtra("postTitle", currentPost.getTitle());
+        // Accepting an application needs these; passing them saves the list screen a post read
+        intent.putExtra("postDescription", currentPost.getDescription());
+        intent.putExtra("postAuthorId", currentPost.getAuthorId());
+        intent.putExtra("postAuthorName", currentPost.getAuthorName());
         startActivity(intent);
     }
 
@@ -135,17 +154,16 @@ public class PostDetailFragment extends Fragment {
             return;
         }
 
-        // Check if already applied
-        FirebaseUtil.getApplicationsCollection()
-                .whereEqualTo("postId", postId)
-                .whereEqualTo("developerId", currentUserId)
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
-                    if (!querySnapshot.isEmpty()) {
+        // Local applied-posts set first, otherwise one lookup of {postId}_{userId}
+        ApplicationRepository.getInstance().hasApplied(requireContext(), postId, currentUserId)
+                .addOnSuccessListener(applied -> {
+                    if (!isAdded()) return;
+                    if (applied) {
                         Toast.makeText(getContext(), "You have already applied to this post", Toast.LENGTH_SHORT).show();
+                        showAppliedState();
                         return;
                     }
-                    
+
                     showApplicationDialog(currentUserId);
                 })
                 .addOnFailureListener(e -> {
@@ -183,49 +201,38 @@ public class PostDetailFragment extends Fragment {
         dialog.show();
     }
 
+    private void showAppliedState() {
+        applyButton.setEnabled(false);
+        applyButton.setText("Applied");
+    }
+
     private void submitApplication(String currentUserId, String proposal) {
-        android.util.Log.d("PostDetailFragment", "=== STARTING APPLICATION SUBMISSION ===");
-        android.util.Log.d("PostDetailFragment", "Current User ID: " + currentUserId);
-        android.util.Log.d("PostDetailFragment", "Post ID: " + postId);
-        android.util.Log.d("PostDetailFragment", "Post Owner ID: " + currentPost.getAuthorId());
-        
-        FirebaseUtil.getUsersCollection().document(currentUserId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    User user = documentSnapshot.toObject(User.class);
+        UserRepository.getInstance().getUser(currentUserId)
+                .addOnSuccessListener(user -> {
                     if (user == null) {
                         Toast.makeText(getContext(), "Error loading user profile", Toast.LENGTH_SHORT).show();
                         return;
                     }
 
-                    Application application = new Application(
-                            postId,
-                            currentPost.getTitle(),
-                            currentUserId,
-                            user.getUsername(),
-                            proposal
-                    );
-
-                    DocumentReference appRef = FirebaseUtil.getApplicationsCollection().document();
-                    application.setApplicationId(appRef.getId());
-
-                    appRef.set(application)
-                            .addOnSuccessListener(aVoid -> {
-                                android.util.Log.d("PostDetailFragment", "Application saved to Firestore successfully");
-                                
-                                FirebaseUtil.getPostsCollection().document(postId)
-                                        .update("applicationsCount", currentPost.getApplicationsCount() + 1)
-                                        .addOnSuccessListener(aVoid1 -> {
-                                            android.util.Log.d("PostDetailFragment", "Application count updated");
-                                            Toast.makeText(getContext(), "Application submitted successfully!", Toast.LENGTH_SHORT).show();
-                                            applyButton.setEnabled(false);
-                                            applyButton.setText("Applied");
-                                            
-                                            android.util.Log.d("PostDetailFragment", ">>> NOW SENDING NOTIFICATION TO POST OWNER <<<");
-                                            // Notify post owner about new application
-                                            sendApplicationNotificationToPostOwner(user.getUsername(), currentPost);
-                                        });
+                    // Application, applicationsCount and owner notification commit together;
+                    // the Outbox keeps it and retries if the connection is down
+                    Outbox.getInstance(requireContext()).submitApplication(currentPost, user, proposal)
+                            .addOnSuccessListener(synced -> {
+                                if (!isAdded()) return;
+                                Toast.makeText(getContext(), synced ? "Application submitted successfully!"
+                                        : "You're offline. Your application will be sent when you reconnect",
+                                        Toast.LENGTH_SHORT).show();
+                                showAppliedState();
                             })
                             .addOnFailureListener(e -> {
+                                if (!isAdded()) return;
+                                if (e instanceof FirebaseFirestoreException && ((FirebaseFirestoreException) e).getCode()
+                                        == FirebaseFirestoreException.Code.ALREADY_EXISTS) {
+                                    Toast.makeText(getContext(), "You have already applied to this post", Toast.LENGTH_SHORT).show();
+                                    showAppliedState();
+                                    return;
+                                }
+                                android.util.Log.e("PostDetailFragment", "Application submission failed", e);
                                 Toast.makeText(getContext(), "Failed to submit application: " + e.getMessage(), Toast.LENGTH_LONG).show();
                             });
                 })
@@ -239,29 +246,4 @@ public class PostDetailFragment extends Fragment {
             getActivity().getSupportFragmentManager().popBackStack();
         }
     }
-
-    private void sendApplicationNotificationToPostOwner(String applicantName, Post post) {
-        android.util.Log.d("PostDetailFragment", "Preparing to send notification to post owner: " + post.getAuthorId());
-        
-        Notification notification = new Notification(
-                post.getAuthorId(),
-                Notification.NotificationType.APPLICATION,
-                "New Application",
-                applicantName + " applied to your post: " + post.getTitle(),
-                post.getPostId()
-        );
-        
-        android.util.Log.d("PostDetailFragment", "Notification created - userId: " + notification.getUserId() 
-                + ", type: " + notification.getType() 
-                + ", title: " + notification.getTitle());
-        
-        FirebaseUtil.getNotificationsCollection()
-                .add(notification)
-                .addOnSuccessListener(documentReference -> {
-                    android.util.Log.d("PostDetailFragment", "✅ Notification sent successfully to post owner! Doc ID: " + documentReference.getId());
-                })
-                .addOnFailureListener(e -> {
-                    android.util.Log.e("PostDetailFragment", "❌ Failed to send notification to post owner", e);
-                });
-    }
 }
@@ -17,18 +17,22 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.button.MaterialButton;
 import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.activities.EditProfileActivity;
 import com.orionverse.devplatform.activities.LoginActivity;
 import com.orionverse.devplatform.adapters.PostAdapter;
 import com.orionverse.devplatform.models.Post;
 import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.repositories.Outbox;
+import com.orionverse.devplatform.repositories.UserRepository;
 import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.utils.PostPager;
+import com.orionverse.devplatform.utils.SearchIndex;
 import com.orionverse.devplatform.utils.ThemeManager;
 
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class ProfileFragment extends Fragment {
     private ImageView profileImageView;
@@ -36,6 +40,8 @@ public class ProfileFragment extends Fragment {
     private MaterialButton editProfileButton, logoutButton, themeButton;
     private RecyclerView myPostsRecyclerView;
     private PostAdapter postAdapter;
+    private PostPager postPager;
+    private Set<String> pinnedIds = new HashSet<>();
     private AlertDialog themeDialog;
 
     @Nullable
@@ -46,13 +52,20 @@ public class ProfileFragment extends Fragment {
 
         initializeViews(view);
         setupRecyclerView();
-        loadUserProfile();
         loadUserPosts();
         setupListeners();
 
         return view;
     }
 
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        // Observers are bound to the view lifecycle, which only exists once onCreateView returns
+        loadUserProfile();
+        observePendingPosts();
+    }
+
     private void initializeViews(View view) {
         profileImageView = view.findViewById(R.id.profileImageView);
         usernameTextView = view.findViewById(R.id.usernameTextView);
@@ -73,6 +86,21 @@ public class ProfileFragment extends Fragment {
         postAdapter = new PostAdapter(getContext());
         myPostsRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
         myPostsRecyclerView.setAdapter(postAdapter);
+
+        postPager = new PostPager(postAdapter);
+        postPager.attachTo(myPostsRecyclerView);
+        postPager.setListener(new PostPager.Listener() {
+            @Override
+            public void onPageLoaded(int loadedCount, boolean reachedEnd) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                // Firestore index might be missing - this is expected
+                // User can still use the app, just won't see their posts in profile
+                android.util.Log.w("ProfileFragment", "Failed to load user posts: " + e.getMessage());
+            }
+        });
     }
 
     private void loadUserProfile() {
@@ -80,13 +108,12 @@ public class ProfileFragment extends Fragment {
         if (userId == null)
             return;
 
-        FirebaseUtil.getUsersCollection().document(userId).get()
-                .addOnSuccessListener(documentSnapshot -> {
-                    User user = documentSnapshot.toObject(User.class);
-                    if (user != null) {
-                        displayUserInfo(user);
-                    }
-                });
+        // The repository's listener paints from the disk cache first and re-emits on every edit
+        UserRepository.getInstance().observeUser(userId).observe(getViewLifecycleOwner(), user -> {
+            if (user != null) {
+                displayUserInfo(user);
+            }
+        });
     }
 
     private void displayUserInfo(User user) {
@@ -110,26 +137,45 @@ public class ProfileFragment extends Fragment {
         if (userId == null)
             return;
 
-        FirebaseUtil.getPostsCollection()
+        // Paged so accounts with thousands of posts still show the first page immediately
+        postPager.reset(FirebaseUtil.getPostsCollection()
                 .whereEqualTo("authorId", userId)
-                .orderBy("createdAt", Query.Direction.DESCENDING)
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Post> posts = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        Post post = document.toObject(Post.class);
-                        post.setPostId(document.getId());
-                        posts.add(post);
-                    }
-                    postAdapter.setPosts(posts);
-                })
-                .addOnFailureListener(e -> {
-                    // Firestore index might be missing - this is expected
-                    // User can still use the app, just won't see their posts in profile
-                    android.util.Log.w("ProfileFragment", "Failed to load user posts: " + e.getMessage());
+                .orderBy("createdAt", Query.Direction.DESCENDING));
+    }
+
+    // Posts created offline show up at the top, dimmed, until the query returns them
+    private void observePendingPosts() {
+        String userId = FirebaseUtil.getCurrentUserId();
+        if (userId == null)
+            return;
+
+        Outbox.getInstance(requireContext()).getPendingPosts(userId)
+                .observe(getViewLifecycleOwner(), posts -> {
+                    postPager.setPinned(posts);
+                    onPinnedChanged(posts);
                 });
     }
 
+    // Pages are one-shot reads, so a post that leaves the outbox after the first page was read
+    // would vanish from the list; reload it to pick up the delivered copy
+    private void onPinnedChanged(List<Post> posts) {
+        Set<String> ids = new HashSet<>();
+        for (Post post : posts) {
+            ids.add(post.getPostId());
+        }
+        Set<String> departed = new HashSet<>(pinnedIds);
+        departed.removeAll(ids);
+        pinnedIds = ids;
+        if (departed.isEmpty()) return;
+
+        for (Post post : postPager.getLoadedPosts()) {
+            departed.remove(post.getPostId());
+        }
+        if (!departed.isEmpty()) {
+            loadUserPosts();
+        }
+    }
+
     private void setupListeners() {
         editProfileButton.setOnClickListener(v -> {
             Intent intent = new Intent(getActivity(), EditProfileActivity.class);
@@ -139,6 +185,8 @@ public class ProfileFragment extends Fragment {
         themeButton.setOnClickListener(v -> showThemeDialog());
 
         logoutButton.setOnClickListener(v -> {
+            SearchIndex.getInstance(requireContext()).stopSync();
+            UserRepository.getInstance().clear();
             FirebaseUtil.getAuth().signOut();
             Intent intent = new Intent(getActivity(), LoginActivity.class);
             intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -182,6 +230,9 @@ public class ProfileFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (postPager != null) {
+            postPager.detach();
+        }
         // Dismiss dialog to prevent window leak
         if (themeDialog != null && themeDialog.isShowing()) {
             themeDialog.dismiss();
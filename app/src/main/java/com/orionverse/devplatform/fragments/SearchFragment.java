@@ -3,6 +3,7 @@ package com.orionverse.devplatform.fragments;
 import android.os.Bundle;
 import android.text.Editable;
 import android.text.TextWatcher;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -14,21 +15,33 @@ import androidx.fragment.app.Fragment;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
+import com.bumptech.glide.Glide;
 import com.google.android.material.tabs.TabLayout;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 import com.orionverse.devplatform.R;
 import com.orionverse.devplatform.adapters.PostAdapter;
+import com.orionverse.devplatform.adapters.UserAdapter;
 import com.orionverse.devplatform.models.Post;
-import com.orionverse.devplatform.utils.FirebaseUtil;
+import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.utils.ImagePreloader;
+import com.orionverse.devplatform.utils.SearchIndex;
+import com.orionverse.devplatform.utils.SearchPipeline;
+import com.orionverse.devplatform.utils.UserSearchPager;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class SearchFragment extends Fragment {
+    private static final String TAG = "SearchFragment";
+    private static final long LOCAL_DEBOUNCE_MS = 100;
     private EditText searchEditText;
     private TabLayout searchTabLayout;
     private RecyclerView searchRecyclerView;
     private PostAdapter postAdapter;
+    private UserAdapter userAdapter;
+    private UserSearchPager userSearchPager;
+    private ImagePreloader avatarPreloader;
+    private SearchPipeline<Post> postSearch;
+    private SearchPipeline<User> userSearch;
     private boolean searchingUsers = true;
 
     @Nullable
@@ -39,6 +52,7 @@ public class SearchFragment extends Fragment {
 
         initializeViews(view);
         setupRecyclerView();
+        setupSearchPipelines();
         setupListeners();
 
         return view;
@@ -52,8 +66,26 @@ public class SearchFragment extends Fragment {
 
     private void setupRecyclerView() {
         postAdapter = new PostAdapter(getContext());
+        userAdapter = new UserAdapter(getContext());
         searchRecyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        searchRecyclerView.setAdapter(postAdapter);
+        searchRecyclerView.setAdapter(userAdapter);
+
+        userSearchPager = new UserSearchPager(userAdapter, SearchIndex.getInstance(requireContext()));
+        userSearchPager.attachTo(searchRecyclerView);
+
+        // Warms avatars ahead of the scroll; does nothing while the posts tab owns the list
+        avatarPreloader = new ImagePreloader(Glide.with(this), userAdapter);
+        avatarPreloader.attachTo(searchRecyclerView);
+        userSearchPager.setListener(new UserSearchPager.Listener() {
+            @Override
+            public void onPageLoaded(int loadedCount, boolean reachedEnd) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                Log.w(TAG, "User search paging failed: " + e.getMessage());
+            }
+        });
     }
 
     private void setupListeners() {
@@ -61,6 +93,7 @@ public class SearchFragment extends Fragment {
             @Override
             public void onTabSelected(TabLayout.Tab tab) {
                 searchingUsers = tab.getPosition() == 0;
+                searchRecyclerView.setAdapter(searchingUsers ? userAdapter : postAdapter);
                 performSearch(searchEditText.getText().toString());
             }
 
@@ -89,46 +122,80 @@ public class SearchFragment extends Fragment {
         });
     }
 
+    private void setupSearchPipelines() {
+        // Both tabs search the on-device index, so results are ranked, full-text and cost no reads.
+        // A result list cut at MAX_RESULTS is not a complete superset, so it can't answer longer queries
+        SearchIndex searchIndex = SearchIndex.getInstance(requireContext());
+        postSearch = new SearchPipeline<>(
+                (query, callback) -> searchIndex.searchPosts(query, posts -> callback.onResult(posts, posts.size() < SearchIndex.MAX_RESULTS)),
+                (post, query) -> SearchIndex.matches(query, post.getTitle(), post.getDescription(),
+                        post.getTags() != null ? String.join(" ", post.getTags()) : null),
+                new SearchPipeline.Listener<Post>() {
+                    @Override
+                    public void onResults(String query, List<Post> posts, boolean fromCache) {
+                        postAdapter.setPosts(posts);
+                    }
+
+                    @Override
+                    public void onError(String query, Exception e) {
+                        Log.w(TAG, "Post search failed for \"" + query + "\": " + e.getMessage());
+                    }
+                });
+        postSearch.setDebounceMs(LOCAL_DEBOUNCE_MS);
+
+        userSearch = new SearchPipeline<>(
+                (query, callback) -> searchIndex.searchUsers(query, users -> callback.onResult(users, users.size() < SearchIndex.MAX_RESULTS)),
+                (user, query) -> SearchIndex.matches(query, user.getUsername(),
+                        user.getSkills() != null ? String.join(" ", user.getSkills()) : null),
+                new SearchPipeline.Listener<User>() {
+                    @Override
+                    public void onResults(String query, List<User> users, boolean fromCache) {
+                        // Local hits render now; server pages for the username prefix follow once typing
+                        // pauses. A prefix-cache hit was already answered from a complete superset
+                        userSearchPager.reset(query, users, !fromCache);
+                    }
+
+                    @Override
+                    public void onError(String query, Exception e) {
+                        Log.w(TAG, "User search failed for \"" + query + "\": " + e.getMessage());
+                    }
+                });
+        userSearch.setDebounceMs(LOCAL_DEBOUNCE_MS);
+    }
+
     private void performSearch(String query) {
+        // Whatever is pending or in flight for the previous text is now stale
+        postSearch.cancel();
+        userSearch.cancel();
+        // Preloads are keyed by position, which means nothing once the result list changes
+        avatarPreloader.cancelAll();
+
         if (query.trim().isEmpty()) {
             postAdapter.setPosts(new ArrayList<>());
+            userSearchPager.clear();
             return;
         }
 
         if (searchingUsers) {
-            searchUsers(query);
+            userSearch.submit(query);
         } else {
-            searchPosts(query);
+            postSearch.submit(query);
         }
     }
 
-    private void searchUsers(String query) {
-        // Simple search - in production, use Algolia or similar
-        FirebaseUtil.getUsersCollection()
-                .orderBy("username")
-                .startAt(query)
-                .endAt(query + "\uf8ff")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    // TODO: Display users with UserAdapter
-                });
-    }
-
-    private void searchPosts(String query) {
-        // Search posts by title
-        FirebaseUtil.getPostsCollection()
-                .orderBy("title")
-                .startAt(query)
-                .endAt(query + "\uf8ff")
-                .get()
-                .addOnSuccessListener(queryDocumentSnapshots -> {
-                    List<Post> posts = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                        Post post = document.toObject(Post.class);
-                        post.setPostId(document.getId());
-                        posts.add(post);
-                    }
-                    postAdapter.setPosts(posts);
-                });
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (postSearch != null) {
+            postSearch.cancel();
+            userSearch.cancel();
+        }
+        if (userSearchPager != null) {
+            userSearchPager.clear();
+            userSearchPager.detach();
+        }
+        if (avatarPreloader != null) {
+            avatarPreloader.detach();
+        }
     }
 }
@@ -3,6 +3,8 @@ package com.orionverse.devplatform.models;
 import com.google.firebase.Timestamp;
 
 public class Application {
+    public static final int PREVIEW_LENGTH = 160;
+
     public enum ApplicationStatus {
         PENDING, ACCEPTED, REJECTED
     }
@@ -13,7 +15,8 @@ public class Application {
     private String developerId;
     private String developerName;
     private String developerImageUrl;
-    private String proposal;
+    private String proposal; // Full text lives in applications/{id}/details/proposal; only legacy docs carry it here
+    private String proposalPreview; // Short excerpt for list rows
     private String status; // Store as String for Firestore
     private Timestamp appliedAt;
 
@@ -29,10 +32,25 @@ public class Application {
         this.developerId = developerId;
         this.developerName = developerName;
         this.proposal = proposal;
+        this.proposalPreview = makePreview(proposal);
         this.status = ApplicationStatus.PENDING.name();
         this.appliedAt = Timestamp.now();
     }
 
+    // Copy constructor - adapters diff by content, so changed items are submitted as new copies
+    public Application(Application other) {
+        this.applicationId = other.applicationId;
+        this.postId = other.postId;
+        this.postTitle = other.postTitle;
+        this.developerId = other.developerId;
+        this.developerName = other.developerName;
+        this.developerImageUrl = other.developerImageUrl;
+        this.proposal = other.proposal;
+        this.proposalPreview = other.proposalPreview;
+        this.status = other.status;
+        this.appliedAt = other.appliedAt;
+    }
+
     // Getters
     public String getApplicationId() { return applicationId; }
     public String getPostId() { return postId; }
@@ -41,6 +59,7 @@ public class Application {
     public String getDeveloperName() { return developerName; }
     public String getDeveloperImageUrl() { return developerImageUrl; }
     public String getProposal() { return proposal; }
+    public String getProposalPreview() { return proposalPreview; }
     public String getStatus() { return status; }
     public Timestamp getAppliedAt() { return appliedAt; }
 
@@ -52,10 +71,22 @@ public class Application {
     public void setDeveloperName(String developerName) { this.developerName = developerName; }
     public void setDeveloperImageUrl(String developerImageUrl) { this.developerImageUrl = developerImageUrl; }
     public void setProposal(String proposal) { this.proposal = proposal; }
+    public void setProposalPreview(String proposalPreview) { this.proposalPreview = proposalPreview; }
     public void setStatus(String status) { this.status = status; }
     public void setAppliedAt(Timestamp appliedAt) { this.appliedAt = appliedAt; }
 
-    // Helper method
+    // Helper methods
+    public static String makePreview(String proposal) {
+        if (proposal == null) return null;
+        String flat = proposal.replaceAll("\\s+", " ").trim();
+        return flat.length() <= PREVIEW_LENGTH ? flat : flat.substring(0, PREVIEW_LENGTH).trim() + "…";
+    }
+
+    // Not a getter on purpose, so Firestore doesn't store it as a field
+    public String previewText() {
+        return proposalPreview != null ? proposalPreview : makePreview(proposal);
+    }
+
     public ApplicationStatus getStatusEnum() {
         try {
             return ApplicationStatus.valueOf(status);
@@ -1,6 +1,10 @@
 package com.orionverse.devplatform.models;
 
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.ServerTimestamp;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class Notification {
     public enum NotificationType {
@@ -19,11 +23,18 @@ public class Notification {
     private String relatedId; // Application ID or Post ID
     private boolean read;
     private Timestamp createdAt;
+    @ServerTimestamp
+    private Timestamp updatedAt; // Bumped when a digest absorbs another event; the inbox sorts on it. Server clock
+    private Timestamp expiresAt; // TTL field, the inbox policy deletes the document after this
+    private int count; // Events merged into this notification (1 unless it's a digest)
+    private List<String> actorNames; // Who triggered the merged events
 
     // Empty constructor for Firestore
     public Notification() {
         this.read = false;
         this.createdAt = Timestamp.now();
+        this.count = 1;
+        this.actorNames = new ArrayList<>();
     }
 
     public Notification(String userId, NotificationType type, String title, String message, String relatedId) {
@@ -34,6 +45,8 @@ public class Notification {
         this.relatedId = relatedId;
         this.read = false;
         this.createdAt = Timestamp.now();
+        this.count = 1;
+        this.actorNames = new ArrayList<>();
     }
 
     // Getters
@@ -45,6 +58,10 @@ public class Notification {
     public String getRelatedId() { return relatedId; }
     public boolean isRead() { return read; }
     public Timestamp getCreatedAt() { return createdAt; }
+    public Timestamp getUpdatedAt() { return updatedAt; }
+    public Timestamp getExpiresAt() { return expiresAt; }
+    public int getCount() { return count; }
+    public List<String> getActorNames() { return actorNames; }
 
     // Setters
     public void setNotificationId(String notificationId) { this.notificationId = notificationId; }
@@ -55,8 +72,19 @@ public class Notification {
     public void setRelatedId(String relatedId) { this.relatedId = relatedId; }
     public void setRead(boolean read) { this.read = read; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+    public void setUpdatedAt(Timestamp updatedAt) { this.updatedAt = updatedAt; }
+    public void setExpiresAt(Timestamp expiresAt) { this.expiresAt = expiresAt; }
+    public void setCount(int count) { this.count = count; }
+    public void setActorNames(List<String> actorNames) { this.actorNames = actorNames; }
+
+    // Helper methods
+    // Unread unless opened individually or covered by the user's mark-all-read watermark
+    public boolean isUnreadSince(Timestamp readAt) {
+        if (read) return false;
+        Timestamp activity = updatedAt != null ? updatedAt : createdAt;
+        return readAt == null || activity == null || activity.compareTo(readAt) > 0;
+    }
 
-    // Helper method
     public NotificationType getTypeEnum() {
         try {
             return NotificationType.valueOf(type);
@@ -1,6 +1,9 @@
 package com.orionverse.devplatform.models;
 
 import com.google.firebase.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class PendingProject {
     public enum ProjectStatus {
@@ -19,12 +22,14 @@ public class PendingProject {
     private String developerId;
     private String developerName;
     private String applicationId;
+    private List<String> participants; // authorId + developerId, for whereArrayContains queries
     private String status; // Store as String for Firestore
     private Timestamp acceptedAt;
     private Timestamp completedAt;
 
     // Empty constructor for Firestore
     public PendingProject() {
+        this.participants = new ArrayList<>();
         this.status = ProjectStatus.PENDING.name();
         this.acceptedAt = Timestamp.now();
     }
@@ -41,6 +46,7 @@ public class PendingProject {
         this.developerId = developerId;
         this.developerName = developerName;
         this.applicationId = applicationId;
+        this.participants = new ArrayList<>(Arrays.asList(authorId, developerId));
         this.status = ProjectStatus.PENDING.name();
         this.acceptedAt = Timestamp.now();
     }
@@ -55,6 +61,7 @@ public class PendingProject {
     public String getDeveloperId() { return developerId; }
     public String getDeveloperName() { return developerName; }
     public String getApplicationId() { return applicationId; }
+    public List<String> getParticipants() { return participants; }
     public String getStatus() { return status; }
     public Timestamp getAcceptedAt() { return acceptedAt; }
     public Timestamp getCompletedAt() { return completedAt; }
@@ -69,6 +76,7 @@ public class PendingProject {
     public void setDeveloperId(String developerId) { this.developerId = developerId; }
     public void setDeveloperName(String developerName) { this.developerName = developerName; }
     public void setApplicationId(String applicationId) { this.applicationId = applicationId; }
+    public void setParticipants(List<String> participants) { this.participants = participants; }
     public void setStatus(String status) { this.status = status; }
     public void setAcceptedAt(Timestamp acceptedAt) { this.acceptedAt = acceptedAt; }
     public void setCompletedAt(Timestamp completedAt) { this.completedAt = completedAt; }
@@ -1,6 +1,7 @@
 package com.orionverse.devplatform.models;
 
 import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.Exclude;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -18,6 +19,7 @@ public class Post {
     private List<String> tags;
     private int applicationsCount;
     private Timestamp createdAt;
+    private boolean pending; // Local only: still waiting in the Outbox
 
     // Empty constructor for Firestore
     public Post() {
@@ -46,6 +48,7 @@ public class Post {
     public List<String> getTags() { return tags; }
     public int getApplicationsCount() { return applicationsCount; }
     public Timestamp getCreatedAt() { return createdAt; }
+    @Exclude public boolean isPending() { return pending; }
 
     // Setters
     public void setPostId(String postId) { this.postId = postId; }
@@ -58,6 +61,7 @@ public class Post {
     public void setTags(List<String> tags) { this.tags = tags; }
     public void setApplicationsCount(int applicationsCount) { this.applicationsCount = applicationsCount; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+    @Exclude public void setPending(boolean pending) { this.pending = pending; }
 
     // Helper method to get PostType enum
     public PostType getPostTypeEnum() {
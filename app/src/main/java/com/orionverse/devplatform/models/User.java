@@ -14,6 +14,7 @@ public class User {
     private double averageRating;
     private int totalRatings;
     private Timestamp createdAt;
+    private Timestamp notificationsReadAt; // Inbox entries last updated at or before this count as read
 
     // Empty constructor required for Firestore
     public User() {
@@ -44,6 +45,7 @@ public class User {
     public double getAverageRating() { return averageRating; }
     public int getTotalRatings() { return totalRatings; }
     public Timestamp getCreatedAt() { return createdAt; }
+    public Timestamp getNotificationsReadAt() { return notificationsReadAt; }
 
     // Setters
     public void setUserId(String userId) { this.userId = userId; }
@@ -55,4 +57,5 @@ public class User {
     public void setAverageRating(double averageRating) { this.averageRating = averageRating; }
     public void setTotalRatings(int totalRatings) { this.totalRatings = totalRatings; }
     public void setCreatedAt(Timestamp createdAt) { this.createdAt = createdAt; }
+    public void setNotificationsReadAt(Timestamp notificationsReadAt) { this.notificationsReadAt = notificationsReadAt; }
 }
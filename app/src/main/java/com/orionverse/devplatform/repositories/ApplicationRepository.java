@@ -0,0 +1,351 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.orionverse.devplatform.models.Application;
+import com.orionverse.devplatform.models.Notification;
+import com.orionverse.devplatform.models.PendingProject;
+import com.orionverse.devplatform.models.Post;
+import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.utils.BatchWriter;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class ApplicationRepository {
+    private static final String TAG = "ApplicationRepository";
+    private static final String PREFS_NAME = "application_prefs";
+    private static final String KEY_APPLIED_PREFIX = "applied_posts_";
+    private static final String KEY_SEEDED_PREFIX = "applied_posts_seeded_";
+
+    private static final int PAGE_SIZE = 20;
+    private static final int REJECT_PAGE_SIZE = BatchWriter.MAX_WRITES / 2; // 2 writes per rejection
+
+    private static ApplicationRepository instance;
+
+    private final Map<String, PagedQueryLiveData<Application>> applicationsByPost = new HashMap<>();
+
+    public static ApplicationRepository getInstance() {
+        if (instance == null) {
+            instance = new ApplicationRepository();
+        }
+        return instance;
+    }
+
+    // Newest first, a page at a time. status == null lists every application; otherwise the
+    // filter runs server-side (postId/status/appliedAt index in firestore.indexes.json)
+    public PagedQueryLiveData<Application> getApplicationsForPost(String postId, Application.ApplicationStatus status) {
+        String key = postId + "|" + (status == null ? "ALL" : status.name());
+        PagedQueryLiveData<Application> applications = applicationsByPost.get(key);
+        if (applications == null) {
+            Query query = FirebaseUtil.getApplicationsCollection().whereEqualTo("postId", postId);
+            if (status != null) {
+                query = query.whereEqualTo("status", status.name());
+            }
+            applications = new PagedQueryLiveData<>(
+                    query.orderBy("appliedAt", Query.Direction.DESCENDING),
+                    PAGE_SIZE,
+                    doc -> {
+                        Application app = doc.toObject(Application.class);
+                        app.setApplicationId(doc.getId());
+                        return app;
+                    });
+            applicationsByPost.put(key, applications);
+        }
+        return applications;
+    }
+
+    // One count() aggregation per status; each costs a single read per 1000 matching documents
+    public Task<Map<Application.ApplicationStatus, Long>> getApplicationCounts(String postId) {
+        Application.ApplicationStatus[] statuses = Application.ApplicationStatus.values();
+        List<Task<AggregateQuerySnapshot>> counts = new ArrayList<>();
+        for (Application.ApplicationStatus status : statuses) {
+            counts.add(FirebaseUtil.getApplicationsCollection()
+                    .whereEqualTo("postId", postId)
+                    .whereEqualTo("status", status.name())
+                    .count()
+                    .get(AggregateSource.SERVER));
+        }
+        return Tasks.whenAllSuccess(counts).continueWith(task -> {
+            Map<Application.ApplicationStatus, Long> result = new EnumMap<>(Application.ApplicationStatus.class);
+            List<Object> snapshots = task.getResult();
+            for (int i = 0; i < statuses.length; i++) {
+                result.put(statuses[i], ((AggregateQuerySnapshot) snapshots.get(i)).getCount());
+            }
+            return result;
+        });
+    }
+
+    // One application per developer per post, so the ID itself is the duplicate guard
+    public static String getApplicationId(String postId, String developerId) {
+        return postId + "_" + developerId;
+    }
+
+    // Writes the application and bumps the post's applicationsCount in a single transaction, then
+    // notifies the post owner. Fails with ALREADY_EXISTS if this developer already applied.
+    public Task<Void> submitApplication(Context context, Post post, User applicant, String proposal) {
+        String applicationId = getApplicationId(post.getPostId(), applicant.getUserId());
+        DocumentReference appRef = FirebaseUtil.getApplicationsCollection().document(applicationId);
+        DocumentReference postRef = FirebaseUtil.getPostsCollection().document(post.getPostId());
+        NotificationService notifications = NotificationService.getInstance();
+
+        Application application = new Application(
+                post.getPostId(),
+                post.getTitle(),
+                applicant.getUserId(),
+                applicant.getUsername(),
+                proposal
+        );
+        application.setApplicationId(applicationId);
+        // Rows render proposalPreview; the full text goes to a details doc loaded on demand
+        application.setProposal(null);
+        DocumentReference detailsRef = FirebaseUtil.getApplicationDetailsRef(applicationId);
+        Map<String, Object> details = new HashMap<>();
+        details.put("proposal", proposal);
+
+        return FirebaseUtil.getFirestore().runTransaction(transaction -> {
+            if (transaction.get(appRef).exists()) {
+                throw new FirebaseFirestoreException("Already applied to this post",
+                        FirebaseFirestoreException.Code.ALREADY_EXISTS);
+            }
+            transaction.set(appRef, application);
+            transaction.set(detailsRef, details);
+            // increment() is applied server-side, so concurrent applicants can't lose a count
+            transaction.update(postRef, "applicationsCount", FieldValue.increment(1));
+            return null;
+        }).addOnSuccessListener(aVoid -> {
+            // A burst of applicants updates one "N new applications" digest per window for the owner.
+            // Kept out of the transaction above so the owner's hot rate doc can't abort the application
+            notifications.coalesce(post.getAuthorId(), Notification.NotificationType.APPLICATION,
+                    post.getPostId(), post.getTitle(), applicant.getUsername())
+                    .addOnFailureListener(e -> Log.w(TAG, "Failed to notify post owner: " + e.getMessage()));
+        }).addOnCompleteListener(task -> {
+            boolean alreadyApplied = task.getException() instanceof FirebaseFirestoreException
+                    && ((FirebaseFirestoreException) task.getException()).getCode()
+                    == FirebaseFirestoreException.Code.ALREADY_EXISTS;
+            if (task.isSuccessful() || alreadyApplied) {
+                markApplied(context, post.getPostId(), applicant.getUserId());
+            }
+        });
+    }
+
+    // Full proposal for the details dialog. Legacy applications still carry it inline; newer ones
+    // read it from the details doc, cache first, so reopening the dialog is instant
+    public void loadProposal(Application application, FirebaseUtil.DocumentCallback callback,
+            OnFailureListener onFailure) {
+        FirebaseUtil.getCacheThenServer(FirebaseUtil.getApplicationDetailsRef(application.getApplicationId()),
+                callback, onFailure);
+    }
+
+    // Accepts the application in one transaction: flips its status, creates the PendingProject from
+    // the post data the caller already has, and notifies the applicant. The only read is the
+    // application itself, to make sure it is still PENDING. With rejectOthers, every other PENDING
+    // application for the post is then rejected (with notifications), a page at a time.
+    public Task<Void> acceptApplication(Application application, Post post, boolean rejectOthers) {
+        DocumentReference appRef = FirebaseUtil.getApplicationsCollection().document(application.getApplicationId());
+        // Keyed by application so a retried accept can never create a second project
+        DocumentReference projectRef = FirebaseUtil.getPendingProjectsCollection().document(application.getApplicationId());
+
+        PendingProject project = newPendingProject(application, post, projectRef);
+
+        return FirebaseUtil.getFirestore().runTransaction(transaction -> {
+            DocumentSnapshot current = transaction.get(appRef);
+            if (!Application.ApplicationStatus.PENDING.name().equals(current.getString("status"))) {
+                throw new FirebaseFirestoreException("Application is no longer pending",
+                        FirebaseFirestoreException.Code.FAILED_PRECONDITION);
+            }
+            transaction.update(appRef, "status", Application.ApplicationStatus.ACCEPTED.name());
+            transaction.set(projectRef, project);
+            NotificationService.getInstance().send(transaction,
+                    newStatusNotification(application, Application.ApplicationStatus.ACCEPTED));
+            return null;
+        }).onSuccessTask(aVoid -> rejectOthers
+                ? rejectPending(application.getPostId())
+                : Tasks.<Void>forResult(null));
+    }
+
+    // Reads the post's PENDING applications one batch-sized page at a time and rejects each page
+    // before reading the next. Rejected ones drop out of the query, so every page starts from the top.
+    private Task<Void> rejectPending(String postId) {
+        return FirebaseUtil.getApplicationsCollection()
+                .whereEqualTo("postId", postId)
+                .whereEqualTo("status", Application.ApplicationStatus.PENDING.name())
+                .limit(REJECT_PAGE_SIZE)
+                .get()
+                .continueWithTask(task -> {
+                    List<Application> page = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        Application app = doc.toObject(Application.class);
+                        if (app == null) continue;
+                        app.setApplicationId(doc.getId());
+                        page.add(app);
+                    }
+                    if (page.isEmpty()) {
+                        return Tasks.<Void>forResult(null);
+                    }
+                    return rejectApplications(page).continueWithTask(commit -> {
+                        commit.getResult(); // Propagate a failed commit instead of looping
+                        return page.size() < REJECT_PAGE_SIZE
+                                ? Tasks.<Void>forResult(null)
+                                : rejectPending(postId);
+                    });
+                });
+    }
+
+    // Status update and applicant notification land in the same batch; large selections are
+    // split into as many 500-write batches as needed and committed in parallel
+    public Task<Void> rejectApplications(List<Application> applications) {
+        BatchWriter writer = new BatchWriter();
+        for (Application application : applications) {
+            writer.add(2, batch -> {
+                batch.update(FirebaseUtil.getApplicationsCollection().document(application.getApplicationId()),
+                        "status", Application.ApplicationStatus.REJECTED.name());
+                NotificationService.getInstance().send(batch,
+                        newStatusNotification(application, Application.ApplicationStatus.REJECTED));
+            });
+        }
+        Log.d(TAG, "Rejecting " + applications.size() + " applications in " + writer.getBatchCount() + " batches");
+        return writer.commit();
+    }
+
+    // Bulk counterpart of acceptApplication for multi-select. Batches can't check the current
+    // status, so callers should only pass applications they have seen as PENDING.
+    public Task<Void> acceptApplications(List<Application> applications, Post post) {
+        BatchWriter writer = new BatchWriter();
+        for (Application application : applications) {
+            writer.add(3, batch -> {
+                batch.update(FirebaseUtil.getApplicationsCollection().document(application.getApplicationId()),
+                        "status", Application.ApplicationStatus.ACCEPTED.name());
+                DocumentReference projectRef = FirebaseUtil.getPendingProjectsCollection()
+                        .document(application.getApplicationId());
+                batch.set(projectRef, newPendingProject(application, post, projectRef));
+                NotificationService.getInstance().send(batch,
+                        newStatusNotification(application, Application.ApplicationStatus.ACCEPTED));
+            });
+        }
+        Log.d(TAG, "Accepting " + applications.size() + " applications in " + writer.getBatchCount() + " batches");
+        return writer.commit();
+    }
+
+    private PendingProject newPendingProject(Application application, Post post, DocumentReference projectRef) {
+        PendingProject project = new PendingProject(
+                application.getPostId(),
+                application.getPostTitle(),
+                post.getDescription(),
+                post.getAuthorId(),
+                post.getAuthorName(),
+                application.getDeveloperId(),
+                application.getDeveloperName(),
+                application.getApplicationId()
+        );
+        project.setProjectId(projectRef.getId());
+        return project;
+    }
+
+    private Notification newStatusNotification(Application application, Application.ApplicationStatus status) {
+        boolean accepted = status == Application.ApplicationStatus.ACCEPTED;
+        Notification notification = new Notification(
+                application.getDeveloperId(),
+                accepted ? Notification.NotificationType.APPLICATION_ACCEPTED
+                        : Notification.NotificationType.APPLICATION_REJECTED,
+                accepted ? "Application Accepted!" : "Application Rejected",
+                accepted
+                        ? "Congratulations! Your application for \"" + application.getPostTitle() + "\" has been accepted."
+                        : "Your application for \"" + application.getPostTitle() + "\" has been rejected.",
+                application.getApplicationId()
+        );
+        return notification;
+    }
+
+    // Answers from the local set of applied post IDs when it can; otherwise with a single
+    // lookup of the deterministic application document (served from cache when offline)
+    public Task<Boolean> hasApplied(Context context, String postId, String userId) {
+        SharedPreferences prefs = getPrefs(context);
+        if (getAppliedPostIds(prefs, userId).contains(postId)) {
+            return Tasks.forResult(true);
+        }
+        if (!prefs.getBoolean(KEY_SEEDED_PREFIX + userId, false)) {
+            return seedAppliedPosts(context, userId)
+                    .continueWith(task -> getAppliedPostIds(prefs, userId).contains(postId));
+        }
+        return FirebaseUtil.getApplicationsCollection().document(getApplicationId(postId, userId)).get()
+                .continueWith(task -> {
+                    boolean applied = task.getResult().exists();
+                    if (applied) {
+                        markApplied(context, postId, userId);
+                    }
+                    return applied;
+                });
+    }
+
+    // Local set only, no reads; false means "not known to have applied", not "hasn't applied"
+    public boolean isKnownApplied(Context context, String postId, String userId) {
+        return getAppliedPostIds(getPrefs(context), userId).contains(postId);
+    }
+
+    public void markApplied(Context context, String postId, String userId) {
+        SharedPreferences prefs = getPrefs(context);
+        Set<String> applied = getAppliedPostIds(prefs, userId);
+        if (applied.add(postId)) {
+            prefs.edit().putStringSet(KEY_APPLIED_PREFIX + userId, applied).apply();
+        }
+    }
+
+    // Undoes an optimistic markApplied when the queued application could not be delivered
+    public void unmarkApplied(Context context, String postId, String userId) {
+        SharedPreferences prefs = getPrefs(context);
+        Set<String> applied = getAppliedPostIds(prefs, userId);
+        if (applied.remove(postId)) {
+            prefs.edit().putStringSet(KEY_APPLIED_PREFIX + userId, applied).apply();
+        }
+    }
+
+    // Applications written before IDs were deterministic can't be found by ID, so the user's
+    // applied posts are read with one query per install and tracked locally from then on
+    private Task<Void> seedAppliedPosts(Context context, String userId) {
+        SharedPreferences prefs = getPrefs(context);
+        return FirebaseUtil.getApplicationsCollection().whereEqualTo("developerId", userId).get()
+                .continueWith(task -> {
+                    Set<String> applied = getAppliedPostIds(prefs, userId);
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        String postId = doc.getString("postId");
+                        if (postId != null) {
+                            applied.add(postId);
+                        }
+                    }
+                    Log.d(TAG, "Seeded " + applied.size() + " applied posts for " + userId);
+                    prefs.edit()
+                            .putStringSet(KEY_APPLIED_PREFIX + userId, applied)
+                            .putBoolean(KEY_SEEDED_PREFIX + userId, true)
+                            .apply();
+                    return null;
+                });
+    }
+
+    private SharedPreferences getPrefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // getStringSet's result must not be modified, so always hand back a copy
+    private Set<String> getAppliedPostIds(SharedPreferences prefs, String userId) {
+        return new HashSet<>(prefs.getStringSet(KEY_APPLIED_PREFIX + userId, new HashSet<>()));
+    }
+}
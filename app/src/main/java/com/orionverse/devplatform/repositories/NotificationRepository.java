@@ -0,0 +1,137 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.orionverse.devplatform.models.Notification;
+import com.orionverse.devplatform.utils.BatchWriter;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class NotificationRepository {
+    private static final String TAG = "NotificationRepository";
+    private static final int INBOX_PAGE_SIZE = 20;
+
+    private static NotificationRepository instance;
+
+    private final Map<String, UnreadCountLiveData> unreadCountByUser = new HashMap<>();
+    private final Map<String, PagedQueryLiveData<Notification>> inboxByUser = new HashMap<>();
+
+    public static NotificationRepository getInstance() {
+        if (instance == null) {
+            instance = new NotificationRepository();
+        }
+        return instance;
+    }
+
+    // Needs the inbox read/updatedAt composite index from firestore.indexes.json
+    public UnreadCountLiveData getUnreadCount(Context context, String userId) {
+        UnreadCountLiveData unreadCount = unreadCountByUser.get(userId);
+        if (unreadCount == null) {
+            unreadCount = new UnreadCountLiveData(context,
+                    FirebaseUtil.getInboxCollection(userId).whereEqualTo("read", false),
+                    userId);
+            unreadCountByUser.put(userId, unreadCount);
+        }
+        return unreadCount;
+    }
+
+    // Newest activity first; a digest that absorbs another event moves back to the top
+    public PagedQueryLiveData<Notification> getInbox(String userId) {
+        PagedQueryLiveData<Notification> inbox = inboxByUser.get(userId);
+        if (inbox == null) {
+            inbox = new PagedQueryLiveData<>(
+                    FirebaseUtil.getInboxCollection(userId).orderBy("updatedAt", Query.Direction.DESCENDING),
+                    INBOX_PAGE_SIZE,
+                    doc -> {
+                        Notification notification = doc.toObject(Notification.class);
+                        notification.setNotificationId(doc.getId());
+                        return notification;
+                    });
+            inboxByUser.put(userId, inbox);
+            flushPending(userId);
+        }
+        return inbox;
+    }
+
+    // Delivers notifications the rate limiter held back; without this the last events of a
+    // burst would wait for the next event to reach this user
+    public void flushPending(String userId) {
+        NotificationService.getInstance().flushPending(userId)
+                .addOnSuccessListener(flushed -> {
+                    if (flushed) {
+                        invalidateUnreadCount(userId);
+                    }
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Failed to flush held-back notifications: " + e.getMessage()));
+    }
+
+    public void invalidateUnreadCount(String userId) {
+        UnreadCountLiveData unreadCount = unreadCountByUser.get(userId);
+        if (unreadCount != null) {
+            unreadCount.invalidate();
+        }
+    }
+
+    // Everything updated up to now becomes read with a single write to the user doc; inbox
+    // entries keep read == false and are judged against the watermark instead. The stored
+    // watermark is server time, like the inbox updatedAt it is compared with; the local copy
+    // only clears the badge until the user doc comes back
+    public Task<Void> markAllRead(Context context, String userId) {
+        UnreadCountLiveData unreadCount = getUnreadCount(context, userId);
+        unreadCount.setReadWatermark(Timestamp.now());
+        return FirebaseUtil.getUsersCollection().document(userId)
+                .update("notificationsReadAt", FieldValue.serverTimestamp())
+                // Landed or failed, the local stand-in has served its purpose
+                .addOnCompleteListener(task -> unreadCount.clearLocalReadWatermark())
+                .addOnSuccessListener(aVoid -> markLegacyRead(userId));
+    }
+
+    // Read flags for entries opened individually, in as few batches as the count allows
+    public Task<Void> markRead(String userId, List<String> notificationIds) {
+        BatchWriter writer = new BatchWriter();
+        for (String notificationId : notificationIds) {
+            writer.add(1, batch -> batch.update(
+                    FirebaseUtil.getInboxCollection(userId).document(notificationId), "read", true));
+        }
+        return writer.commit().addOnSuccessListener(aVoid -> invalidateUnreadCount(userId));
+    }
+
+    // Background clean-up for the old flat notifications collection, which has no watermark:
+    // flips read on up to 500 documents per batch until none are left unread
+    public Task<Void> markLegacyRead(String userId) {
+        return FirebaseUtil.getNotificationsCollection()
+                .whereEqualTo("userId", userId)
+                .whereEqualTo("read", false)
+                .limit(BatchWriter.MAX_WRITES)
+                .get()
+                .continueWithTask(task -> {
+                    QuerySnapshot snapshot = task.getResult();
+                    if (snapshot.isEmpty()) {
+                        return Tasks.<Void>forResult(null);
+                    }
+                    BatchWriter writer = new BatchWriter();
+                    for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                        writer.add(1, batch -> batch.update(doc.getReference(), "read", true));
+                    }
+                    Log.d(TAG, "Marking " + snapshot.size() + " legacy notifications read");
+                    return writer.commit().continueWithTask(commit -> {
+                        commit.getResult(); // Propagate a failed commit instead of looping
+                        return snapshot.size() < BatchWriter.MAX_WRITES
+                                ? Tasks.<Void>forResult(null)
+                                : markLegacyRead(userId);
+                    });
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Legacy read migration failed: " + e.getMessage()));
+    }
+}
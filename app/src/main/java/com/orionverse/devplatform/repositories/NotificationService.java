@@ -0,0 +1,317 @@
+package com.orionverse.devplatform.repositories;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Transaction;
+import com.google.firebase.firestore.WriteBatch;
+import com.orionverse.devplatform.models.Notification;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Single write path for notifications. Everything goes to the recipient's users/{uid}/inbox,
+// so reading an inbox only ever touches that user's documents.
+// Notification IDs are derived from what they are about, which makes retried writes idempotent.
+// Every document carries expiresAt, which the inbox TTL policy uses to delete old entries.
+//
+// Bursts are handled in two layers:
+//  - Coalescing: events of one type about one subject within a COALESCE_WINDOW_MS window are
+//    merged into a single digest with a counter and the last few actor names.
+//  - Rate limiting: a token bucket per recipient (users/{uid}/inbox_meta/rate) caps how often
+//    digests are touched. Events that find the bucket empty are only tallied on the bucket doc,
+//    one entry per post, and folded into the digest by the next event for that post that gets a
+//    token. Tallies whose window has ended are flushed into their digest by the recipient's next
+//    event, and the recipient's own app flushes whatever is left when it opens (flushPending).
+public class NotificationService {
+    public static final long TTL_MS = 30L * 24 * 60 * 60 * 1000; // 30 days
+    public static final long COALESCE_WINDOW_MS = 15 * 60 * 1000;
+    private static final int MAX_ACTOR_NAMES = 3;
+    private static final double BUCKET_CAPACITY = 5;
+    private static final long REFILL_INTERVAL_MS = 60 * 1000; // One token per minute
+
+    private static NotificationService instance;
+
+    public static NotificationService getInstance() {
+        if (instance == null) {
+            instance = new NotificationService();
+        }
+        return instance;
+    }
+
+    // One notification per (type, relatedId), e.g. the accept/reject notice for an application
+    public void send(WriteBatch batch, Notification notification) {
+        DocumentReference ref = prepare(notification);
+        batch.set(ref, notification);
+    }
+
+    public void send(Transaction transaction, Notification notification) {
+        DocumentReference ref = prepare(notification);
+        transaction.set(ref, notification);
+    }
+
+    // Merges one event into the current window's digest if the recipient's bucket has a token,
+    // otherwise tallies it against the post. Runs in its own transaction after the triggering
+    // write has committed, so contention on the bucket doc only ever retries this notification
+    // and never aborts the caller's write. A digest the recipient has already opened starts over.
+    public Task<Void> coalesce(String recipientId, Notification.NotificationType type, String relatedId,
+            String subject, String actorName) {
+        DocumentReference bucketRef = getBucketRef(recipientId);
+        String key = pendingKey(type, relatedId);
+
+        return FirebaseUtil.getFirestore().runTransaction(transaction -> {
+            Timestamp now = Timestamp.now();
+            long nowMs = now.toDate().getTime();
+            long window = nowMs / COALESCE_WINDOW_MS;
+
+            // All reads first: the bucket, this window's digest, and the digests of any tallies
+            // left over from earlier windows, which get flushed now that their window has rolled over
+            DocumentSnapshot bucket = transaction.get(bucketRef);
+            DocumentSnapshot digest = transaction.get(getDigestRef(recipientId, type, relatedId, window));
+            Map<String, Map<String, Object>> pending = getPending(bucket);
+            Map<String, Map<String, Object>> staleTallies = new HashMap<>();
+            for (Map.Entry<String, Map<String, Object>> entry : pending.entrySet()) {
+                if (getLong(entry.getValue(), "window") < window) {
+                    staleTallies.put(entry.getKey(), entry.getValue());
+                }
+            }
+            Map<String, DocumentSnapshot> stale = readTallyDigests(transaction, recipientId, staleTallies);
+
+            Map<String, Object> pendingUpdate = new HashMap<>();
+            flushTallies(transaction, recipientId, staleTallies, stale, pendingUpdate, now);
+
+            Map<String, Object> bucketUpdate = new HashMap<>();
+            bucketUpdate.put("refilledAt", now);
+
+            double tokens = refill(bucket, nowMs);
+            Map<String, Object> current = stale.containsKey(key) ? null : pending.get(key);
+            if (tokens < 1) {
+                List<String> actors = current != null ? prependName(getNames(current), actorName)
+                        : new ArrayList<>(Collections.singletonList(actorName));
+                Map<String, Object> tally = new HashMap<>();
+                tally.put("type", type.name());
+                tally.put("relatedId", relatedId);
+                tally.put("subject", subject);
+                tally.put("window", window);
+                tally.put("count", (current != null ? getLong(current, "count") : 0) + 1);
+                tally.put("actorNames", actors);
+                pendingUpdate.put(key, tally);
+                bucketUpdate.put("pending", pendingUpdate);
+                bucketUpdate.put("tokens", tokens);
+                transaction.set(bucketRef, bucketUpdate, SetOptions.merge());
+                return null;
+            }
+
+            // Fold this window's tally for the post in with the event that got the token
+            List<String> actors = Collections.singletonList(actorName);
+            int events = 1;
+            if (current != null) {
+                actors = prependName(getNames(current), actorName);
+                events += (int) getLong(current, "count");
+                pendingUpdate.put(key, FieldValue.delete());
+            }
+            bucketUpdate.put("tokens", tokens - 1);
+            // An empty map would replace every other post's tally under merge, so only send changes
+            if (!pendingUpdate.isEmpty()) {
+                bucketUpdate.put("pending", pendingUpdate);
+            }
+            transaction.set(bucketRef, bucketUpdate, SetOptions.merge());
+            mergeIntoDigest(transaction, digest, recipientId, type, relatedId, subject, actors, events, now);
+            return null;
+        });
+    }
+
+    // Delivers every tally still waiting on the recipient's bucket, whatever its window, so the
+    // tail of a burst shows up even if no further event arrives to flush it. Called from the
+    // recipient's side when the app opens or the inbox loads. Resolves true if anything was flushed.
+    public Task<Boolean> flushPending(String recipientId) {
+        DocumentReference bucketRef = getBucketRef(recipientId);
+        return FirebaseUtil.getFirestore().runTransaction(transaction -> {
+            DocumentSnapshot bucket = transaction.get(bucketRef);
+            Map<String, Map<String, Object>> pending = getPending(bucket);
+            if (pending.isEmpty()) return false;
+
+            Map<String, DocumentSnapshot> digests = readTallyDigests(transaction, recipientId, pending);
+            Map<String, Object> pendingUpdate = new HashMap<>();
+            flushTallies(transaction, recipientId, pending, digests, pendingUpdate, Timestamp.now());
+            transaction.set(bucketRef, Collections.singletonMap("pending", pendingUpdate), SetOptions.merge());
+            return true;
+        });
+    }
+
+    // Digest of the window each tally was counted in, keyed like the tallies. Reads only, so
+    // it has to run before the transaction's first write
+    private Map<String, DocumentSnapshot> readTallyDigests(Transaction transaction, String recipientId,
+            Map<String, Map<String, Object>> tallies) throws FirebaseFirestoreException {
+        Map<String, DocumentSnapshot> digests = new HashMap<>();
+        for (Map.Entry<String, Map<String, Object>> entry : tallies.entrySet()) {
+            Map<String, Object> tally = entry.getValue();
+            digests.put(entry.getKey(), transaction.get(getDigestRef(recipientId,
+                    Notification.NotificationType.valueOf((String) tally.get("type")),
+                    (String) tally.get("relatedId"), getLong(tally, "window"))));
+        }
+        return digests;
+    }
+
+    // Merges each tally into its digest and marks it for deletion in pendingUpdate
+    private void flushTallies(Transaction transaction, String recipientId, Map<String, Map<String, Object>> tallies,
+            Map<String, DocumentSnapshot> digests, Map<String, Object> pendingUpdate, Timestamp now) {
+        for (Map.Entry<String, Map<String, Object>> entry : tallies.entrySet()) {
+            Map<String, Object> tally = entry.getValue();
+            mergeIntoDigest(transaction, digests.get(entry.getKey()), recipientId,
+                    Notification.NotificationType.valueOf((String) tally.get("type")),
+                    (String) tally.get("relatedId"), (String) tally.get("subject"),
+                    getNames(tally), (int) getLong(tally, "count"), now);
+            pendingUpdate.put(entry.getKey(), FieldValue.delete());
+        }
+    }
+
+    // Adds events to a digest, or starts it over if it doesn't exist or was already opened.
+    // actors is most recent first.
+    private void mergeIntoDigest(Transaction transaction, DocumentSnapshot digest, String recipientId,
+            Notification.NotificationType type, String relatedId, String subject, List<String> actors,
+            int events, Timestamp now) {
+        boolean mergeable = digest.exists() && !Boolean.TRUE.equals(digest.getBoolean("read"));
+        if (!mergeable) {
+            List<String> names = new ArrayList<>(actors.subList(0, Math.min(actors.size(), MAX_ACTOR_NAMES)));
+            Notification notification = new Notification(recipientId, type,
+                    digestTitle(type, events), digestMessage(type, events, subject, names), relatedId);
+            notification.setNotificationId(digest.getId());
+            notification.setCount(events);
+            notification.setActorNames(names);
+            notification.setExpiresAt(expiresAt(now));
+            transaction.set(digest.getReference(), notification);
+            return;
+        }
+
+        Long stored = digest.getLong("count");
+        int count = (stored != null ? stored.intValue() : 1) + events;
+        List<String> names = getNames(digest.getData());
+        for (int i = actors.size() - 1; i >= 0; i--) {
+            names = prependName(names, actors.get(i));
+        }
+        Map<String, Object> updates = new HashMap<>();
+        updates.put("count", count);
+        updates.put("title", digestTitle(type, count));
+        updates.put("message", digestMessage(type, count, subject, names));
+        updates.put("actorNames", names);
+        // Server clock, so the unread badge can compare it with its baseline however skewed the sender is
+        updates.put("updatedAt", FieldValue.serverTimestamp());
+        updates.put("expiresAt", expiresAt(now));
+        transaction.update(digest.getReference(), updates);
+    }
+
+    private DocumentReference prepare(Notification notification) {
+        String id = notification.getType() + "_" + notification.getRelatedId();
+        notification.setNotificationId(id);
+        notification.setExpiresAt(expiresAt(notification.getCreatedAt()));
+        return FirebaseUtil.getInboxCollection(notification.getUserId()).document(id);
+    }
+
+    // Fixed windows keep the ID deterministic, so no lookup is needed to find the current digest.
+    // window is the index (epoch ms / COALESCE_WINDOW_MS), not a time
+    private DocumentReference getDigestRef(String recipientId, Notification.NotificationType type,
+            String relatedId, long window) {
+        return FirebaseUtil.getInboxCollection(recipientId)
+                .document("digest_" + type.name() + "_" + relatedId + "_" + window);
+    }
+
+    private DocumentReference getBucketRef(String recipientId) {
+        return FirebaseUtil.getUsersCollection().document(recipientId)
+                .collection("inbox_meta").document("rate");
+    }
+
+    // Tokens available now, after crediting the time since the last refill
+    private double refill(DocumentSnapshot bucket, long nowMs) {
+        if (!bucket.exists()) return BUCKET_CAPACITY;
+        Double tokens = bucket.getDouble("tokens");
+        Timestamp refilledAt = bucket.getTimestamp("refilledAt");
+        if (tokens == null || refilledAt == null) return BUCKET_CAPACITY;
+        long elapsed = Math.max(0, nowMs - refilledAt.toDate().getTime());
+        return Math.min(BUCKET_CAPACITY, tokens + (double) elapsed / REFILL_INTERVAL_MS);
+    }
+
+    // Tallies are keyed by type and post, never by window, so a post has at most one entry
+    private String pendingKey(Notification.NotificationType type, String relatedId) {
+        return type.name() + "_" + relatedId;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> getPending(DocumentSnapshot bucket) {
+        Map<String, Map<String, Object>> pending = new HashMap<>();
+        Object stored = bucket.exists() ? bucket.get("pending") : null;
+        if (stored instanceof Map) {
+            for (Map.Entry<String, Object> entry : ((Map<String, Object>) stored).entrySet()) {
+                if (entry.getValue() instanceof Map) {
+                    pending.put(entry.getKey(), (Map<String, Object>) entry.getValue());
+                }
+            }
+        }
+        return pending;
+    }
+
+    private long getLong(Map<String, Object> map, String field) {
+        Object value = map.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    private Timestamp expiresAt(Timestamp from) {
+        return new Timestamp(new Date(from.toDate().getTime() + TTL_MS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> getNames(Map<String, Object> data) {
+        Object stored = data != null ? data.get("actorNames") : null;
+        return stored instanceof List ? (List<String>) stored : new ArrayList<>();
+    }
+
+    // Most recent actor first, capped at MAX_ACTOR_NAMES
+    private List<String> prependName(List<String> names, String actorName) {
+        List<String> actors = new ArrayList<>();
+        actors.add(actorName);
+        for (String name : names) {
+            if (actors.size() >= MAX_ACTOR_NAMES) break;
+            if (!name.equals(actorName)) {
+                actors.add(name);
+            }
+        }
+        return actors;
+    }
+
+    private String digestTitle(Notification.NotificationType type, int count) {
+        if (type == Notification.NotificationType.APPLICATION) {
+            return count == 1 ? "New Application" : count + " New Applications";
+        }
+        return count == 1 ? "New Notification" : count + " New Notifications";
+    }
+
+    private String digestMessage(Notification.NotificationType type, int count, String subject, List<String> actors) {
+        String who = describeActors(count, actors);
+        if (type == Notification.NotificationType.APPLICATION) {
+            return count == 1
+                    ? who + " applied to your post: " + subject
+                    : who + " applied to \"" + subject + "\"";
+        }
+        return who + ": " + subject;
+    }
+
+    // "Ana", "Ana and Ben", "Ana, Ben and 10 others"
+    private String describeActors(int count, List<String> actors) {
+        if (actors.isEmpty()) return count + " people";
+        if (count == 1) return actors.get(0);
+        if (count == 2 && actors.size() >= 2) return actors.get(0) + " and " + actors.get(1);
+        int named = Math.min(actors.size(), 2);
+        int others = count - named;
+        String names = named == 2 ? actors.get(0) + ", " + actors.get(1) : actors.get(0);
+        return names + " and " + others + (others == 1 ? " other" : " others");
+    }
+}
@@ -0,0 +1,454 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.widget.Toast;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.orionverse.devplatform.models.Post;
+import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Durable queue for the writes a user makes from a flaky connection: new posts, applications
+// and profile edits. Each mutation is stored in SQLite under an idempotency key before it is
+// attempted, so nothing is lost if the app dies, and replaying it any number of times has the
+// same effect as running it once:
+//  - posts are created at a client-generated document ID (the key), and only if it doesn't exist yet
+//  - applications already have a deterministic ID, and ALREADY_EXISTS counts as delivered
+//  - profile edits are keyed per user, so a newer edit replaces one that hasn't gone out yet
+// Writes are tried right away; if they don't land within ATTEMPT_TIMEOUT_MS the caller is told
+// they were queued and OutboxWorker replays them with exponential backoff once there is network.
+public class Outbox extends SQLiteOpenHelper {
+    private static final String TAG = "Outbox";
+    private static final String DATABASE_NAME = "outbox.db";
+    private static final int DATABASE_VERSION = 1;
+    private static final String WORK_NAME = "outbox_replay";
+    private static final long ATTEMPT_TIMEOUT_MS = 8_000;
+    private static final long REPLAY_TIMEOUT_MS = 30_000;
+    private static final long INITIAL_BACKOFF_MS = 30_000;
+    private static final int MAX_ATTEMPTS = 20;
+
+    public enum Kind {
+        CREATE_POST, SUBMIT_APPLICATION, UPDATE_PROFILE
+    }
+
+    public static class Mutation {
+        final long id;
+        final String key;
+        final Kind kind;
+        final String userId;
+        final JSONObject payload;
+        final int attempts;
+
+        Mutation(long id, String key, Kind kind, String userId, JSONObject payload, int attempts) {
+            this.id = id;
+            this.key = key;
+            this.kind = kind;
+            this.userId = userId;
+            this.payload = payload;
+            this.attempts = attempts;
+        }
+
+        public String getKey() { return key; }
+        public Kind getKind() { return kind; }
+        public String getUserId() { return userId; }
+    }
+
+    private static Outbox instance;
+
+    private final Context context;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final MutableLiveData<List<Mutation>> pending = new MutableLiveData<>(new ArrayList<>());
+
+    public static synchronized Outbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new Outbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private Outbox(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.context = context;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE mutations (id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "idempotency_key TEXT UNIQUE NOT NULL, kind TEXT NOT NULL, user_id TEXT NOT NULL, "
+                + "payload TEXT NOT NULL, attempts INTEGER NOT NULL DEFAULT 0, created_at INTEGER, last_error TEXT)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Never drop queued writes on upgrade; migrate instead when the schema changes
+    }
+
+    // Resolves true once the post is on the server, false if it was queued for later
+    public Task<Boolean> createPost(Post post) {
+        if (post.getPostId() == null) {
+            post.setPostId(FirebaseUtil.getPostsCollection().document().getId());
+        }
+        try {
+            JSONObject payload = new JSONObject()
+                    .put("postId", post.getPostId())
+                    .put("authorId", post.getAuthorId())
+                    .put("authorName", post.getAuthorName())
+                    .put("title", post.getTitle())
+                    .put("description", post.getDescription())
+                    .put("postType", post.getPostType())
+                    .put("tags", new JSONArray(post.getTags()))
+                    .put("createdAt", post.getCreatedAt() != null ? post.getCreatedAt().toDate().getTime() : System.currentTimeMillis());
+            return submit(Kind.CREATE_POST, post.getPostId(), post.getAuthorId(), payload);
+        } catch (JSONException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    // Fails with ALREADY_EXISTS if the server already has this application
+    public Task<Boolean> submitApplication(Post post, User applicant, String proposal) {
+        String applicationId = ApplicationRepository.getApplicationId(post.getPostId(), applicant.getUserId());
+        try {
+            JSONObject payload = new JSONObject()
+                    .put("postId", post.getPostId())
+                    .put("postTitle", post.getTitle())
+                    .put("postAuthorId", post.getAuthorId())
+                    .put("userId", applicant.getUserId())
+                    .put("username", applicant.getUsername())
+                    .put("proposal", proposal);
+            // Queued counts as applied for the apply button; the duplicate guard is the ID anyway
+            ApplicationRepository.getInstance().markApplied(context, post.getPostId(), applicant.getUserId());
+            return submit(Kind.SUBMIT_APPLICATION, applicationId, applicant.getUserId(), payload);
+        } catch (JSONException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    public Task<Boolean> updateProfile(String userId, Map<String, Object> fields) {
+        try {
+            JSONObject payload = new JSONObject();
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                Object value = field.getValue();
+                payload.put(field.getKey(), value instanceof List ? new JSONArray((List<?>) value) : value);
+            }
+            return submit(Kind.UPDATE_PROFILE, "profile_" + userId, userId, payload);
+        } catch (JSONException e) {
+            return Tasks.forException(e);
+        }
+    }
+
+    // Posts still waiting to reach the server, newest first, for optimistic rows in post lists
+    public LiveData<List<Post>> getPendingPosts(String userId) {
+        return Transformations.map(pending, mutations -> {
+            List<Post> posts = new ArrayList<>();
+            for (Mutation mutation : mutations) {
+                if (mutation.kind == Kind.CREATE_POST && mutation.userId.equals(userId)) {
+                    Post post = toPost(mutation.payload);
+                    post.setPending(true);
+                    posts.add(0, post);
+                }
+            }
+            return posts;
+        });
+    }
+
+    // Reloads the pending list and schedules a replay if anything is left over from a previous run
+    public void start() {
+        executor.execute(() -> {
+            List<Mutation> mutations = loadAll();
+            pending.postValue(mutations);
+            if (!mutations.isEmpty()) {
+                scheduleReplay();
+            }
+        });
+    }
+
+    private Task<Boolean> submit(Kind kind, String key, String userId, JSONObject payload) {
+        TaskCompletionSource<Boolean> result = new TaskCompletionSource<>();
+        executor.execute(() -> {
+            Mutation mutation = insert(kind, key, userId, payload);
+            pending.postValue(loadAll());
+            mainHandler.post(() -> attempt(mutation, result));
+        });
+        return result.getTask();
+    }
+
+    private void attempt(Mutation mutation, TaskCompletionSource<Boolean> result) {
+        Runnable timeout = () -> {
+            if (result.trySetResult(false)) {
+                scheduleReplay();
+            }
+        };
+        mainHandler.postDelayed(timeout, ATTEMPT_TIMEOUT_MS);
+
+        // The write may still land after the timeout (Firestore keeps it queued too); settle the row either way
+        execute(mutation).addOnCompleteListener(task -> {
+            mainHandler.removeCallbacks(timeout);
+            Exception e = task.getException();
+            if (task.isSuccessful() || isDelivered(mutation, e)) {
+                remove(mutation);
+                if (e != null) {
+                    result.trySetException(e);
+                } else {
+                    result.trySetResult(true);
+                }
+            } else if (isTransient(e)) {
+                recordFailure(mutation, e);
+                if (result.trySetResult(false)) {
+                    scheduleReplay();
+                }
+            } else {
+                Log.w(TAG, "Dropping " + mutation.kind + " " + mutation.key + ": " + e.getMessage());
+                remove(mutation);
+                rollBack(mutation);
+                // Once the caller was told "queued" it no longer listens, so tell the user directly
+                if (!result.trySetException(e)) {
+                    notifyDropped(mutation);
+                }
+            }
+        });
+    }
+
+    // Called by OutboxWorker on a background thread. Returns false if anything should be retried later.
+    boolean replayBlocking() {
+        String userId = FirebaseUtil.getCurrentUserId();
+        if (userId == null) return true; // Nothing can be written signed out; the next start() reschedules
+
+        boolean done = true;
+        for (Mutation mutation : loadAll()) {
+            // Another account's writes wait until that user signs back in
+            if (!mutation.userId.equals(userId)) continue;
+            try {
+                Tasks.await(execute(mutation), REPLAY_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                deleteRow(mutation.id);
+            } catch (Exception e) {
+                Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                if (isDelivered(mutation, cause)) {
+                    deleteRow(mutation.id);
+                } else if (isTransient(cause) && mutation.attempts + 1 < MAX_ATTEMPTS) {
+                    updateFailure(mutation.id, cause);
+                    done = false;
+                } else {
+                    Log.w(TAG, "Dropping " + mutation.kind + " " + mutation.key + ": " + cause.getMessage());
+                    deleteRow(mutation.id);
+                    rollBack(mutation);
+                    notifyDropped(mutation);
+                }
+            }
+        }
+        pending.postValue(loadAll());
+        return done;
+    }
+
+    private Task<Void> execute(Mutation mutation) {
+        JSONObject payload = mutation.payload;
+        switch (mutation.kind) {
+            case CREATE_POST:
+                Post post = toPost(payload);
+                DocumentReference postRef = FirebaseUtil.getPostsCollection().document(mutation.key);
+                // A replay after an earlier attempt got through must not reset the post's
+                // counters or undo edits made since, so it only writes if nothing is there yet
+                return FirebaseUtil.getFirestore().runTransaction(transaction -> {
+                    if (!transaction.get(postRef).exists()) {
+                        transaction.set(postRef, post);
+                    }
+                    return null;
+                });
+            case SUBMIT_APPLICATION:
+                Post target = new Post();
+                target.setPostId(payload.optString("postId"));
+                target.setTitle(payload.optString("postTitle"));
+                target.setAuthorId(payload.optString("postAuthorId"));
+                User applicant = new User();
+                applicant.setUserId(payload.optString("userId"));
+                applicant.setUsername(payload.optString("username"));
+                return ApplicationRepository.getInstance()
+                        .submitApplication(context, target, applicant, payload.optString("proposal"));
+            case UPDATE_PROFILE:
+                Map<String, Object> fields = toMap(payload);
+                // Server time, so SearchIndex's edit listener sees it regardless of this device's clock
+                fields.put("updatedAt", FieldValue.serverTimestamp());
+                return FirebaseUtil.getUsersCollection().document(mutation.userId).update(fields);
+            default:
+                return Tasks.forException(new IllegalStateException("Unknown mutation " + mutation.kind));
+        }
+    }
+
+    // Undoes local state that assumed the write would land
+    private void rollBack(Mutation mutation) {
+        if (mutation.kind == Kind.SUBMIT_APPLICATION) {
+            ApplicationRepository.getInstance().unmarkApplied(context,
+                    mutation.payload.optString("postId"), mutation.userId);
+        }
+    }
+
+    private void notifyDropped(Mutation mutation) {
+        String message;
+        switch (mutation.kind) {
+            case CREATE_POST:
+                message = "Couldn't publish your post \"" + mutation.payload.optString("title") + "\"";
+                break;
+            case SUBMIT_APPLICATION:
+                message = "Couldn't send your application to \"" + mutation.payload.optString("postTitle") + "\"";
+                break;
+            default:
+                message = "Couldn't save your profile changes";
+                break;
+        }
+        mainHandler.post(() -> Toast.makeText(context, message, Toast.LENGTH_LONG).show());
+    }
+
+    // An application that already exists means an earlier attempt got through
+    private boolean isDelivered(Mutation mutation, Exception e) {
+        return mutation.kind == Kind.SUBMIT_APPLICATION && e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode() == FirebaseFirestoreException.Code.ALREADY_EXISTS;
+    }
+
+    private boolean isTransient(Exception e) {
+        if (e instanceof TimeoutException || e instanceof InterruptedException) return true;
+        if (!(e instanceof FirebaseFirestoreException)) return false;
+        switch (((FirebaseFirestoreException) e).getCode()) {
+            case UNAVAILABLE:
+            case DEADLINE_EXCEEDED:
+            case ABORTED:
+            case RESOURCE_EXHAUSTED:
+            case INTERNAL:
+            case UNKNOWN:
+            case CANCELLED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void scheduleReplay() {
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(OutboxWorker.class)
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_MS, TimeUnit.MILLISECONDS)
+                .build();
+        // KEEP: a replay already waiting will pick this mutation up from the table
+        WorkManager.getInstance(context).enqueueUniqueWork(WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+
+    private void remove(Mutation mutation) {
+        executor.execute(() -> {
+            deleteRow(mutation.id);
+            pending.postValue(loadAll());
+        });
+    }
+
+    private void recordFailure(Mutation mutation, Exception e) {
+        executor.execute(() -> updateFailure(mutation.id, e));
+    }
+
+    private Mutation insert(Kind kind, String key, String userId, JSONObject payload) {
+        ContentValues values = new ContentValues();
+        values.put("idempotency_key", key);
+        values.put("kind", kind.name());
+        values.put("user_id", userId);
+        values.put("payload", payload.toString());
+        values.put("attempts", 0);
+        values.put("created_at", System.currentTimeMillis());
+        // REPLACE: a profile edit supersedes the one still waiting under the same key
+        long id = getWritableDatabase().insertWithOnConflict("mutations", null, values, SQLiteDatabase.CONFLICT_REPLACE);
+        return new Mutation(id, key, kind, userId, payload, 0);
+    }
+
+    private void deleteRow(long id) {
+        getWritableDatabase().delete("mutations", "id = ?", new String[]{String.valueOf(id)});
+    }
+
+    private void updateFailure(long id, Exception e) {
+        getWritableDatabase().execSQL("UPDATE mutations SET attempts = attempts + 1, last_error = ? WHERE id = ?",
+                new Object[]{String.valueOf(e.getMessage()), id});
+    }
+
+    private List<Mutation> loadAll() {
+        List<Mutation> mutations = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT id, idempotency_key, kind, user_id, payload, attempts FROM mutations ORDER BY id", null)) {
+            while (cursor.moveToNext()) {
+                try {
+                    mutations.add(new Mutation(cursor.getLong(0), cursor.getString(1), Kind.valueOf(cursor.getString(2)),
+                            cursor.getString(3), new JSONObject(cursor.getString(4)), cursor.getInt(5)));
+                } catch (JSONException | IllegalArgumentException e) {
+                    Log.w(TAG, "Skipping unreadable mutation " + cursor.getLong(0) + ": " + e.getMessage());
+                }
+            }
+        }
+        return mutations;
+    }
+
+    private Post toPost(JSONObject payload) {
+        Post post = new Post();
+        post.setPostId(payload.optString("postId"));
+        post.setAuthorId(payload.optString("authorId"));
+        post.setAuthorName(payload.optString("authorName"));
+        post.setTitle(payload.optString("title"));
+        post.setDescription(payload.optString("description"));
+        post.setPostType(payload.optString("postType"));
+        post.setTags(toList(payload.optJSONArray("tags")));
+        post.setCreatedAt(new Timestamp(new Date(payload.optLong("createdAt"))));
+        return post;
+    }
+
+    private Map<String, Object> toMap(JSONObject payload) {
+        Map<String, Object> map = new HashMap<>();
+        JSONArray names = payload.names();
+        if (names == null) return map;
+        for (int i = 0; i < names.length(); i++) {
+            String name = names.optString(i);
+            Object value = payload.opt(name);
+            map.put(name, value instanceof JSONArray ? toList((JSONArray) value) : value);
+        }
+        return map;
+    }
+
+    private List<String> toList(JSONArray array) {
+        List<String> list = new ArrayList<>();
+        if (array == null) return list;
+        for (int i = 0; i < array.length(); i++) {
+            list.add(array.optString(i));
+        }
+        return list;
+    }
+}
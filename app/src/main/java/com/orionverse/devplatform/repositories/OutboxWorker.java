@@ -0,0 +1,23 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+// Replays whatever is left in the Outbox. WorkManager only runs it with network available and
+// retries it with exponential backoff while any mutation still fails for a transient reason.
+public class OutboxWorker extends Worker {
+
+    public OutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        boolean done = Outbox.getInstance(getApplicationContext()).replayBlocking();
+        return done ? Result.success() : Result.retry();
+    }
+}
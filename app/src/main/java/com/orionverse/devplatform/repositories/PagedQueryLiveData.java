@@ -0,0 +1,95 @@
+package com.orionverse.devplatform.repositories;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Realtime list over an ordered query, loaded one cursor page at a time.
+// The open last page listens with query.startAfter(previous anchor).limit(pageSize). loadMore()
+// closes it at its last document (endAt(anchor), no limit, so inserts inside it still show up)
+// and opens the next page after that anchor. Only the page being closed and the new one are read,
+// rather than everything loaded so far.
+public class PagedQueryLiveData<T> extends MediatorLiveData<List<T>> {
+    private final Query query;
+    private final QueryLiveData.Mapper<T> mapper;
+    private final int pageSize;
+    private final MediatorLiveData<Exception> errors = new MediatorLiveData<>();
+    private final List<QueryLiveData<T>> pages = new ArrayList<>();
+    private final List<DocumentSnapshot> anchors = new ArrayList<>(); // anchors.get(i) = last document of closed page i
+    private boolean loading = true; // Until every page has delivered its first snapshot
+
+    public PagedQueryLiveData(Query query, int pageSize, QueryLiveData.Mapper<T> mapper) {
+        this.query = query;
+        this.pageSize = pageSize;
+        this.mapper = mapper;
+        addPage(query.limit(pageSize));
+    }
+
+    public LiveData<Exception> getErrors() {
+        return errors;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    // A full open page means there may be more results after it
+    public boolean hasMore() {
+        if (loading) return false;
+        List<T> lastPage = pages.get(pages.size() - 1).getValue();
+        return lastPage != null && lastPage.size() >= pageSize;
+    }
+
+    // Scroll listeners call this on every frame near the end; only the first call per page does anything
+    public void loadMore() {
+        if (loading || !hasMore()) return;
+        QueryLiveData<T> openPage = pages.get(pages.size() - 1);
+        DocumentSnapshot anchor = openPage.getLastDocument();
+        if (anchor == null) return;
+
+        int index = pages.size() - 1;
+        Query closed = index == 0
+                ? query.endAt(anchor)
+                : query.startAfter(anchors.get(index - 1)).endAt(anchor);
+        anchors.add(anchor);
+
+        loading = true;
+        removePage(openPage);
+        pages.remove(index);
+        addPage(closed);
+        addPage(query.startAfter(anchor).limit(pageSize));
+    }
+
+    private void addPage(Query pageQuery) {
+        QueryLiveData<T> page = new QueryLiveData<>(pageQuery, mapper);
+        pages.add(page);
+        addSource(page, items -> publish());
+        errors.addSource(page.getErrors(), e -> {
+            loading = false; // Let the next scroll retry instead of waiting on a dead listener
+            errors.setValue(e);
+        });
+    }
+
+    private void removePage(QueryLiveData<T> page) {
+        removeSource(page);
+        errors.removeSource(page.getErrors());
+        page.dispose();
+    }
+
+    // Publishes once every page has synced, so a half-loaded page never shows as a gap
+    private void publish() {
+        List<T> all = new ArrayList<>();
+        for (QueryLiveData<T> page : pages) {
+            List<T> items = page.getValue();
+            if (items == null) return;
+            all.addAll(items);
+        }
+        loading = false;
+        setValue(all);
+    }
+}
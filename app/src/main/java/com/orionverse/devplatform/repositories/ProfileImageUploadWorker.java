@@ -0,0 +1,169 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkInfo;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FieldValue;
+import com.orionverse.devplatform.utils.CloudinaryUtil;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Uploads a prepared avatar file (see ImagePrep) and patches profileImageUrl on the user doc.
+// Runs under WorkManager, so it survives rotation, leaving the screen and process death; it waits
+// for network and retries with exponential backoff. Progress and the final URL are published as
+// WorkInfo, observable through observe(). One upload per user: a newer pick replaces an older one.
+public class ProfileImageUploadWorker extends Worker {
+    private static final String TAG = "ProfileImageUpload";
+    public static final String KEY_PROGRESS = "progress";
+    public static final String KEY_IMAGE_URL = "imageUrl";
+    private static final String KEY_FILE_PATH = "filePath";
+    private static final String KEY_USER_ID = "userId";
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long UPLOAD_TIMEOUT_MS = 120_000;
+    private static final long INITIAL_BACKOFF_MS = 15_000;
+
+    public ProfileImageUploadWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Prepared files live here rather than in the cache dir, which the system may clear while the job waits
+    public static File getUploadDir(Context context) {
+        File dir = new File(context.getFilesDir(), "pending_avatars");
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        return dir;
+    }
+
+    public static void enqueue(Context context, File prepared, String userId) {
+        // REPLACE cancels any older upload still waiting, so its file can go
+        File[] stale = getUploadDir(context).listFiles();
+        if (stale != null) {
+            for (File file : stale) {
+                if (!file.equals(prepared)) {
+                    file.delete();
+                }
+            }
+        }
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ProfileImageUploadWorker.class)
+                .setInputData(new Data.Builder()
+                        .putString(KEY_FILE_PATH, prepared.getAbsolutePath())
+                        .putString(KEY_USER_ID, userId)
+                        .build())
+                .setConstraints(new Constraints.Builder()
+                        .setRequiredNetworkType(NetworkType.CONNECTED)
+                        .build())
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, INITIAL_BACKOFF_MS, TimeUnit.MILLISECONDS)
+                .build();
+        WorkManager.getInstance(context).enqueueUniqueWork(getWorkName(userId), ExistingWorkPolicy.REPLACE, request);
+    }
+
+    public static LiveData<List<WorkInfo>> observe(Context context, String userId) {
+        return WorkManager.getInstance(context).getWorkInfosForUniqueWorkLiveData(getWorkName(userId));
+    }
+
+    private static String getWorkName(String userId) {
+        return "profile_image_upload_" + userId;
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        String filePath = getInputData().getString(KEY_FILE_PATH);
+        String userId = getInputData().getString(KEY_USER_ID);
+        File file = filePath != null ? new File(filePath) : null;
+        if (file == null || !file.exists() || userId == null) {
+            return Result.failure();
+        }
+
+        String imageUrl;
+        try {
+            imageUrl = upload(file, userId);
+        } catch (Exception e) {
+            Log.w(TAG, "Upload attempt " + (getRunAttemptCount() + 1) + " failed: " + e.getMessage());
+            return retryOrFail(file);
+        }
+
+        try {
+            // The URL is only useful once the profile points at it, so that write is part of the job
+            Tasks.await(FirebaseUtil.getUsersCollection().document(userId)
+                            .update("profileImageUrl", imageUrl, "updatedAt", FieldValue.serverTimestamp()),
+                    UPLOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // A retry uploads the file again; at worst that leaves one unused copy on Cloudinary
+            Log.w(TAG, "Profile patch failed: " + e.getMessage());
+            return retryOrFail(file);
+        }
+
+        file.delete();
+        return Result.success(new Data.Builder().putString(KEY_IMAGE_URL, imageUrl).build());
+    }
+
+    private Result retryOrFail(File file) {
+        if (getRunAttemptCount() + 1 < MAX_ATTEMPTS) {
+            return Result.retry();
+        }
+        file.delete();
+        return Result.failure();
+    }
+
+    // CloudinaryUtil reports through callbacks; block this worker thread until one of them fires
+    private String upload(File file, String userId) throws Exception {
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<String> url = new AtomicReference<>();
+        AtomicReference<String> error = new AtomicReference<>();
+
+        CloudinaryUtil.uploadProfileImage(getApplicationContext(), Uri.fromFile(file), userId,
+                new CloudinaryUtil.CloudinaryUploadCallback() {
+                    @Override
+                    public void onStart() {
+                        setProgressAsync(new Data.Builder().putInt(KEY_PROGRESS, 0).build());
+                    }
+
+                    @Override
+                    public void onProgress(int progress) {
+                        setProgressAsync(new Data.Builder().putInt(KEY_PROGRESS, progress).build());
+                    }
+
+                    @Override
+                    public void onSuccess(String imageUrl) {
+                        url.set(imageUrl);
+                        done.countDown();
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        error.set(message);
+                        done.countDown();
+                    }
+                });
+
+        if (!done.await(UPLOAD_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+            throw new Exception("Upload timed out");
+        }
+        if (url.get() == null) {
+            throw new Exception(error.get() != null ? error.get() : "Upload failed");
+        }
+        return url.get();
+    }
+}
@@ -0,0 +1,86 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.WriteBatch;
+import com.orionverse.devplatform.models.PendingProject;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class ProjectRepository {
+    private static final String TAG = "ProjectRepository";
+    private static final String PREFS_NAME = "project_prefs";
+    private static final String KEY_MIGRATED_PREFIX = "participants_migrated_";
+    public static final int PAGE_SIZE = 20;
+
+    private static ProjectRepository instance;
+
+    private final Map<String, PagedQueryLiveData<PendingProject>> userProjects = new HashMap<>();
+
+    public static ProjectRepository getInstance() {
+        if (instance == null) {
+            instance = new ProjectRepository();
+        }
+        return instance;
+    }
+
+    // Projects where the user is either developer or author, newest first.
+    // Needs the participants/acceptedAt composite index from firestore.indexes.json
+    public PagedQueryLiveData<PendingProject> getProjectsForUser(String userId) {
+        PagedQueryLiveData<PendingProject> projects = userProjects.get(userId);
+        if (projects == null) {
+            Query query = FirebaseUtil.getPendingProjectsCollection()
+                    .whereArrayContains("participants", userId)
+                    .orderBy("acceptedAt", Query.Direction.DESCENDING);
+            projects = new PagedQueryLiveData<>(query, PAGE_SIZE, doc -> {
+                PendingProject project = doc.toObject(PendingProject.class);
+                project.setProjectId(doc.getId());
+                return project;
+            });
+            userProjects.put(userId, projects);
+        }
+        return projects;
+    }
+
+    // Projects created before the participants field existed are invisible to the query above.
+    // Backfill the ones this user takes part in, once per user; the listener picks them up as they land.
+    public void migrateLegacyProjects(Context context, String userId) {
+        SharedPreferences prefs = context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        if (prefs.getBoolean(KEY_MIGRATED_PREFIX + userId, false)) return;
+
+        FirebaseUtil.getPendingProjectsCollection().whereEqualTo("authorId", userId).get()
+                .continueWithTask(authorTask -> FirebaseUtil.getPendingProjectsCollection()
+                        .whereEqualTo("developerId", userId).get()
+                        .continueWithTask(developerTask -> {
+                            WriteBatch batch = FirebaseUtil.getFirestore().batch();
+                            int updates = 0;
+                            for (DocumentSnapshot doc : authorTask.getResult().getDocuments()) {
+                                updates += addParticipants(batch, doc);
+                            }
+                            for (DocumentSnapshot doc : developerTask.getResult().getDocuments()) {
+                                updates += addParticipants(batch, doc);
+                            }
+                            Log.d(TAG, "Backfilling participants on " + updates + " projects");
+                            return batch.commit();
+                        }))
+                .addOnSuccessListener(aVoid ->
+                        prefs.edit().putBoolean(KEY_MIGRATED_PREFIX + userId, true).apply())
+                .addOnFailureListener(e ->
+                        Log.w(TAG, "Participants migration failed: " + e.getMessage()));
+    }
+
+    private int addParticipants(WriteBatch batch, DocumentSnapshot doc) {
+        if (doc.contains("participants")) return 0;
+        batch.update(doc.getReference(), "participants",
+                Arrays.asList(doc.getString("authorId"), doc.getString("developerId")));
+        return 1;
+    }
+}
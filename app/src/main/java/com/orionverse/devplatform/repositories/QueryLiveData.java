@@ -0,0 +1,121 @@
+package com.orionverse.devplatform.repositories;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// LiveData backed by a single Firestore snapshot listener. Only DocumentChange deltas are
+// applied to the in-memory list, and the listener stays attached for a short grace period
+// after the last observer goes away so that returning to a screen costs no reads.
+public class QueryLiveData<T> extends LiveData<List<T>> {
+    private static final String TAG = "QueryLiveData";
+    private static final long DETACH_DELAY_MS = 60_000;
+
+    public interface Mapper<T> {
+        T map(DocumentSnapshot document);
+    }
+
+    private final Query query;
+    private final Mapper<T> mapper;
+    private final List<T> items = new ArrayList<>();
+    private final List<DocumentSnapshot> documents = new ArrayList<>(); // Parallel to items, for cursors
+    private final MutableLiveData<Exception> errors = new MutableLiveData<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable detachRunnable = this::detach;
+    private ListenerRegistration registration;
+    private boolean synced = false;
+
+    public QueryLiveData(Query query, Mapper<T> mapper) {
+        this.query = query;
+        this.mapper = mapper;
+    }
+
+    public LiveData<Exception> getErrors() {
+        return errors;
+    }
+
+    @Override
+    protected void onActive() {
+        handler.removeCallbacks(detachRunnable);
+        if (registration == null) {
+            registration = query.addSnapshotListener((snapshot, e) -> {
+                if (e != null) {
+                    Log.w(TAG, "Listen failed: " + e.getMessage());
+                    // A failed listener is dead; let the next activation attach a fresh one
+                    detach();
+                    errors.setValue(e);
+                    return;
+                }
+                if (snapshot == null) return;
+
+                List<DocumentChange> changes = snapshot.getDocumentChanges();
+                if (changes.isEmpty() && synced) return;
+                synced = true;
+
+                for (DocumentChange change : changes) {
+                    switch (change.getType()) {
+                        case ADDED:
+                            items.add(change.getNewIndex(), mapper.map(change.getDocument()));
+                            documents.add(change.getNewIndex(), change.getDocument());
+                            break;
+                        case MODIFIED:
+                            T item = mapper.map(change.getDocument());
+                            if (change.getOldIndex() == change.getNewIndex()) {
+                                items.set(change.getNewIndex(), item);
+                                documents.set(change.getNewIndex(), change.getDocument());
+                            } else {
+                                items.remove(change.getOldIndex());
+                                documents.remove(change.getOldIndex());
+                                items.add(change.getNewIndex(), item);
+                                documents.add(change.getNewIndex(), change.getDocument());
+                            }
+                            break;
+                        case REMOVED:
+                            items.remove(change.getOldIndex());
+                            documents.remove(change.getOldIndex());
+                            break;
+                    }
+                }
+                setValue(new ArrayList<>(items));
+            });
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.postDelayed(detachRunnable, DETACH_DELAY_MS);
+    }
+
+    // Last document of the current result, usable as a query cursor; null until synced or if empty
+    public DocumentSnapshot getLastDocument() {
+        return documents.isEmpty() ? null : documents.get(documents.size() - 1);
+    }
+
+    // Drop the listener right away instead of after the grace period, e.g. when a page swaps it out
+    public void dispose() {
+        handler.removeCallbacks(detachRunnable);
+        detach();
+    }
+
+    private void detach() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        // The next listener replays the full result set as ADDED changes
+        items.clear();
+        documents.clear();
+        synced = false;
+    }
+}
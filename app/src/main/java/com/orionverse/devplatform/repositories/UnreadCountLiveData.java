@@ -0,0 +1,199 @@
+package com.orionverse.devplatform.repositories;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.lifecycle.LiveData;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+
+import java.util.Date;
+
+// Unread notification count without downloading the notifications themselves.
+// An entry is unread if its read flag is false and it was last updated after the user's
+// mark-all-read watermark (users/{uid}.notificationsReadAt), so clearing the badge is one write.
+// The count between the watermark and a baseline time comes from an aggregate count() query
+// (cached with a TTL), and a listener on entries updated after the baseline keeps it current.
+public class UnreadCountLiveData extends LiveData<Integer> {
+    private static final String TAG = "UnreadCountLiveData";
+    private static final String PREFS_NAME = "notification_prefs";
+    private static final String KEY_COUNT = "unread_count_";
+    private static final String KEY_BASELINE = "unread_baseline_";
+    private static final String KEY_FETCHED_AT = "unread_fetched_at_";
+    private static final String KEY_READ_AT = "read_at_";
+    private static final long CACHE_TTL_MS = 5 * 60 * 1000;
+    private static final long DETACH_DELAY_MS = 60_000;
+
+    private final Query unreadQuery;
+    private final String userId;
+    private final SharedPreferences prefs;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable detachRunnable = this::detach;
+    private final Runnable refreshRunnable = this::refresh;
+
+    private ListenerRegistration registration;
+    private long baseCount;
+    private int generation = 0; // Bumped on refresh so a slow count() can't overwrite a newer one
+    private Timestamp recountedBaseline; // Baseline whose listener already asked for a recount
+
+    public UnreadCountLiveData(Context context, Query unreadQuery, String userId) {
+        this.unreadQuery = unreadQuery;
+        this.userId = userId;
+        this.prefs = context.getApplicationContext().getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    @Override
+    protected void onActive() {
+        handler.removeCallbacks(detachRunnable);
+        if (registration != null) return;
+
+        long fetchedAt = prefs.getLong(KEY_FETCHED_AT + userId, 0);
+        if (prefs.contains(KEY_COUNT + userId)) {
+            // Paint the last known value right away, even if it is about to be refreshed
+            baseCount = prefs.getLong(KEY_COUNT + userId, 0);
+            setValue((int) baseCount);
+        }
+
+        long age = System.currentTimeMillis() - fetchedAt;
+        if (age < CACHE_TTL_MS) {
+            attachListener(new Timestamp(new Date(prefs.getLong(KEY_BASELINE + userId, 0))));
+            handler.postDelayed(refreshRunnable, CACHE_TTL_MS - age);
+        } else {
+            refresh();
+        }
+    }
+
+    @Override
+    protected void onInactive() {
+        handler.postDelayed(detachRunnable, DETACH_DELAY_MS);
+    }
+
+    // Drop the cached count, e.g. after notifications were marked read
+    public void invalidate() {
+        prefs.edit().remove(KEY_FETCHED_AT + userId).apply();
+        if (hasActiveObservers()) {
+            refresh();
+        }
+    }
+
+    // Called right after mark-all-read so the badge clears without waiting for the user doc.
+    // The device-clock value only stands in until the server-stamped one lands
+    public void setReadWatermark(Timestamp readAt) {
+        prefs.edit().putLong(KEY_READ_AT + userId, readAt.toDate().getTime()).apply();
+        baseCount = 0;
+        setValue(0);
+        invalidate();
+    }
+
+    // Called once the mark-all-read write has settled: from then on the user doc's server-stamped
+    // watermark is the only one used, so a fast device clock can't hide newer notifications
+    public void clearLocalReadWatermark() {
+        prefs.edit().remove(KEY_READ_AT + userId).apply();
+        invalidate();
+    }
+
+    private void refresh() {
+        refresh(null);
+    }
+
+    // notBefore pushes the baseline past entries the listener has already seen, in case the
+    // server clock is ahead of this device's
+    private void refresh(Timestamp notBefore) {
+        handler.removeCallbacks(refreshRunnable);
+        final int requestGeneration = ++generation;
+        Timestamp now = Timestamp.now();
+        final Timestamp baseline = notBefore != null && notBefore.compareTo(now) > 0 ? notBefore : now;
+
+        // The watermark may have been moved on another device, so the user doc is consulted too;
+        // UserRepository usually has it cached already
+        UserRepository.getInstance().getUser(userId)
+                .continueWithTask(userTask -> {
+                    Timestamp readAt = getReadWatermark(userTask.isSuccessful() && userTask.getResult() != null
+                            ? userTask.getResult().getNotificationsReadAt() : null);
+                    return unreadQuery.whereGreaterThan("updatedAt", readAt)
+                            .whereLessThanOrEqualTo("updatedAt", baseline)
+                            .count()
+                            .get(AggregateSource.SERVER);
+                })
+                .addOnSuccessListener(snapshot -> {
+                    if (requestGeneration != generation) return;
+                    baseCount = snapshot.getCount();
+                    prefs.edit()
+                            .putLong(KEY_COUNT + userId, baseCount)
+                            .putLong(KEY_BASELINE + userId, baseline.toDate().getTime())
+                            .putLong(KEY_FETCHED_AT + userId, System.currentTimeMillis())
+                            .apply();
+                    attachListener(baseline);
+                    handler.postDelayed(refreshRunnable, CACHE_TTL_MS);
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Unread count failed: " + e.getMessage()));
+    }
+
+    // The local watermark while a mark-all-read is still on its way to the server, otherwise the
+    // user doc's. Both are considered while pending in case another device marked read later
+    private Timestamp getReadWatermark(Timestamp serverReadAt) {
+        Timestamp epoch = new Timestamp(new Date(0));
+        if (!prefs.contains(KEY_READ_AT + userId)) {
+            return serverReadAt != null ? serverReadAt : epoch;
+        }
+        Timestamp localReadAt = new Timestamp(new Date(prefs.getLong(KEY_READ_AT + userId, 0)));
+        if (serverReadAt == null || serverReadAt.compareTo(localReadAt) < 0) {
+            return localReadAt;
+        }
+        return serverReadAt;
+    }
+
+    private void attachListener(Timestamp baseline) {
+        removeListener();
+        // Only entries updated after the counted baseline; the two ranges never overlap
+        registration = unreadQuery.whereGreaterThan("updatedAt", baseline)
+                .addSnapshotListener((snapshot, e) -> {
+                    if (e != null) {
+                        Log.w(TAG, "Unread listener failed: " + e.getMessage());
+                        return;
+                    }
+                    if (snapshot == null) return;
+                    // A digest created before the baseline that just absorbed another event may
+                    // already be part of baseCount; recount rather than count it twice. Only once
+                    // per baseline, so entries that keep matching can't start a recount loop
+                    if (!baseline.equals(recountedBaseline)) {
+                        Timestamp latest = null;
+                        boolean stale = false;
+                        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                            Timestamp createdAt = doc.getTimestamp("createdAt");
+                            Timestamp updatedAt = doc.getTimestamp("updatedAt");
+                            stale |= createdAt != null && createdAt.compareTo(baseline) <= 0;
+                            if (updatedAt != null && (latest == null || updatedAt.compareTo(latest) > 0)) {
+                                latest = updatedAt;
+                            }
+                        }
+                        if (stale) {
+                            recountedBaseline = baseline;
+                            refresh(latest);
+                            return;
+                        }
+                    }
+                    setValue((int) (baseCount + snapshot.size()));
+                });
+    }
+
+    private void removeListener() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    private void detach() {
+        handler.removeCallbacks(refreshRunnable);
+        generation++;
+        removeListener();
+    }
+}
@@ -0,0 +1,149 @@
+package com.orionverse.devplatform.repositories;
+
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Source;
+import com.orionverse.devplatform.models.User;
+import com.orionverse.devplatform.utils.FirebaseUtil;
+
+// Process-wide cache of users/{uid} documents.
+// Each cached user is backed by a snapshot listener, so the entry is replaced whenever the
+// document changes instead of going stale. Concurrent getUser() calls for a user that is not
+// cached yet share the first snapshot rather than each issuing their own read.
+// The cache is bounded; evicting an entry also removes its listener.
+public class UserRepository {
+    private static final String TAG = "UserRepository";
+    private static final int MAX_CACHED_USERS = 50;
+
+    private static UserRepository instance;
+
+    private static class Entry {
+        final MutableLiveData<User> user = new MutableLiveData<>();
+        TaskCompletionSource<User> pending = new TaskCompletionSource<>(); // Null once the first snapshot arrived
+        boolean serverChecked; // A cache miss already triggered a direct server read
+        ListenerRegistration registration;
+    }
+
+    private final LruCache<String, Entry> cache = new LruCache<String, Entry>(MAX_CACHED_USERS) {
+        @Override
+        protected void entryRemoved(boolean evicted, String userId, Entry oldEntry, Entry newEntry) {
+            if (oldEntry.registration != null) {
+                oldEntry.registration.remove();
+            }
+        }
+    };
+
+    public static UserRepository getInstance() {
+        if (instance == null) {
+            instance = new UserRepository();
+        }
+        return instance;
+    }
+
+    // Resolves with the cached user, or with null once the server confirms the document does not
+    // exist. Fails if the user isn't cached and the server can't be reached
+    public Task<User> getUser(String userId) {
+        Entry entry = getOrCreate(userId);
+        if (entry.pending != null) {
+            return entry.pending.getTask();
+        }
+        return Tasks.forResult(entry.user.getValue());
+    }
+
+    // Emits the current user and every later change while the entry stays cached
+    public LiveData<User> observeUser(String userId) {
+        return getOrCreate(userId).user;
+    }
+
+    // Drops the entry so the next caller refetches (e.g. after a failed listener)
+    public void invalidate(String userId) {
+        cache.remove(userId);
+    }
+
+    public void clear() {
+        cache.evictAll();
+    }
+
+    private Entry getOrCreate(String userId) {
+        Entry entry = cache.get(userId);
+        if (entry != null) {
+            return entry;
+        }
+
+        Entry created = new Entry();
+        cache.put(userId, created);
+        created.registration = FirebaseUtil.getUsersCollection().document(userId)
+                .addSnapshotListener(MetadataChanges.INCLUDE, (snapshot, e) -> {
+                    if (e != null) {
+                        Log.w(TAG, "Listener failed for " + userId + ": " + e.getMessage());
+                        if (created.pending != null) {
+                            created.pending.trySetException(e);
+                            created.pending = null;
+                        }
+                        // Only drop the entry if it's still the one in the cache
+                        if (cache.get(userId) == created) {
+                            cache.remove(userId);
+                        }
+                        return;
+                    }
+                    // A cache miss isn't proof the user is gone; ask the server to confirm
+                    if (!snapshot.exists() && snapshot.getMetadata().isFromCache()) {
+                        if (created.pending != null && !created.serverChecked) {
+                            created.serverChecked = true;
+                            confirmMiss(userId, created);
+                        }
+                        return;
+                    }
+                    User user = toUser(snapshot);
+                    created.user.setValue(user);
+                    if (created.pending != null) {
+                        created.pending.trySetResult(user);
+                        created.pending = null;
+                    }
+                });
+        return created;
+    }
+
+    // The listener alone would wait indefinitely offline, so the pending getUser() is settled by a
+    // direct server read: with the user (or null if the document really is missing), or with the
+    // error when the server can't be reached, so callers can show a failure instead of hanging
+    private void confirmMiss(String userId, Entry entry) {
+        FirebaseUtil.getUsersCollection().document(userId).get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    if (entry.pending == null) return; // The listener got there first
+                    User user = toUser(snapshot);
+                    entry.user.setValue(user);
+                    entry.pending.trySetResult(user);
+                    entry.pending = null;
+                })
+                .addOnFailureListener(e -> {
+                    if (entry.pending == null) return;
+                    Log.w(TAG, "Couldn't load " + userId + ": " + e.getMessage());
+                    entry.pending.trySetException(e);
+                    entry.pending = null;
+                    // Let the next getUser() try again rather than resolve with nothing
+                    if (cache.get(userId) == entry) {
+                        cache.remove(userId);
+                    }
+                });
+    }
+
+    private User toUser(DocumentSnapshot snapshot) {
+        if (snapshot == null || !snapshot.exists()) return null;
+        User user = snapshot.toObject(User.class);
+        if (user != null) {
+            user.setUserId(snapshot.getId());
+        }
+        return user;
+    }
+}
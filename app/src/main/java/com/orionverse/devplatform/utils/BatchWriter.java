@@ -0,0 +1,57 @@
+package com.orionverse.devplatform.utils;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Splits an arbitrary number of writes into WriteBatches of at most MAX_WRITES operations.
+// Writes that must land together (e.g. a status change and its notification) are added as
+// one group and are never split across two batches.
+public class BatchWriter {
+    public static final int MAX_WRITES = 500; // Firestore limit per batch
+
+    public interface Group {
+        void write(WriteBatch batch);
+    }
+
+    private final List<WriteBatch> batches = new ArrayList<>();
+    private WriteBatch current;
+    private int writesInCurrent = 0;
+    private int totalWrites = 0;
+
+    // writes = number of operations the group adds to the batch
+    public BatchWriter add(int writes, Group group) {
+        if (writes > MAX_WRITES) {
+            throw new IllegalArgumentException("Group of " + writes + " writes can't fit in one batch");
+        }
+        if (current == null || writesInCurrent + writes > MAX_WRITES) {
+            current = FirebaseUtil.getFirestore().batch();
+            batches.add(current);
+            writesInCurrent = 0;
+        }
+        group.write(current);
+        writesInCurrent += writes;
+        totalWrites += writes;
+        return this;
+    }
+
+    public int getBatchCount() {
+        return batches.size();
+    }
+
+    public int getWriteCount() {
+        return totalWrites;
+    }
+
+    // Commits every batch in parallel; the task fails if any of them fails
+    public Task<Void> commit() {
+        List<Task<Void>> commits = new ArrayList<>();
+        for (WriteBatch batch : batches) {
+            commits.add(batch.commit());
+        }
+        return Tasks.whenAll(commits);
+    }
+}
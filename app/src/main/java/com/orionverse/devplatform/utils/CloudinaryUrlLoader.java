@@ -0,0 +1,67 @@
+package com.orionverse.devplatform.utils;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelCache;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.load.model.stream.BaseGlideUrlLoader;
+import com.bumptech.glide.request.target.Target;
+
+import java.io.InputStream;
+
+// Makes Glide ask Cloudinary for the size it is about to display instead of the original upload.
+// Plain Cloudinary delivery URLs (".../image/upload/v123/...") get a transformation segment with
+// the target's pixel size, a fill crop and automatic format/quality; other URLs are left alone.
+// Sizes are rounded up to SIZE_STEP_PX so views of almost the same size share one variant and one cache entry.
+public class CloudinaryUrlLoader extends BaseGlideUrlLoader<String> {
+    private static final String UPLOAD_SEGMENT = "/image/upload/";
+    private static final int SIZE_STEP_PX = 64;
+    private static final int MAX_SIZE_PX = 2048;
+    private static final int MODEL_CACHE_SIZE = 250;
+
+    CloudinaryUrlLoader(ModelLoader<GlideUrl, InputStream> concreteLoader, ModelCache<String, GlideUrl> modelCache) {
+        super(concreteLoader, modelCache);
+    }
+
+    @Override
+    public boolean handles(@NonNull String model) {
+        return model.contains("res.cloudinary.com") && model.contains(UPLOAD_SEGMENT);
+    }
+
+    @Override
+    protected String getUrl(String model, int width, int height, Options options) {
+        if (width == Target.SIZE_ORIGINAL || height == Target.SIZE_ORIGINAL || width <= 0 || height <= 0) {
+            return model;
+        }
+        int split = model.indexOf(UPLOAD_SEGMENT) + UPLOAD_SEGMENT.length();
+        // Someone already picked a transformation; don't stack another on top
+        if (model.startsWith("w_", split) || model.startsWith("c_", split) || model.startsWith("t_", split)) {
+            return model;
+        }
+        String transformation = "w_" + bucket(width) + ",h_" + bucket(height) + ",c_fill,g_auto,f_auto,q_auto/";
+        return model.substring(0, split) + transformation + model.substring(split);
+    }
+
+    static int bucket(int px) {
+        int rounded = ((px + SIZE_STEP_PX - 1) / SIZE_STEP_PX) * SIZE_STEP_PX;
+        return Math.min(rounded, MAX_SIZE_PX);
+    }
+
+    public static class Factory implements ModelLoaderFactory<String, InputStream> {
+        private final ModelCache<String, GlideUrl> modelCache = new ModelCache<>(MODEL_CACHE_SIZE);
+
+        @NonNull
+        @Override
+        public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+            return new CloudinaryUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class), modelCache);
+        }
+
+        @Override
+        public void teardown() {
+        }
+    }
+}
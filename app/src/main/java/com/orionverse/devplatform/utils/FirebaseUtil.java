@@ -1,15 +1,36 @@
 package com.orionverse.devplatform.utils;
 
+import android.util.Log;
+
+import com.google.android.gms.tasks.OnFailureListener;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.PersistentCacheSettings;
+import com.google.firebase.firestore.Source;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
 public class FirebaseUtil {
+    private static final String TAG = "FirebaseUtil";
+
+    // Default on-disk cache budget; the SDK's own default is 100 MB
+    public static final long DEFAULT_CACHE_SIZE_BYTES = 100L * 1024 * 1024;
+
     private static FirebaseAuth auth;
     private static FirebaseFirestore firestore;
     private static FirebaseStorage storage;
+    private static long cacheSizeBytes = DEFAULT_CACHE_SIZE_BYTES;
+
+    public interface DocumentCallback {
+        // Called up to twice: once from the local cache (fromCache = true), then with the server copy
+        void onDocument(DocumentSnapshot snapshot, boolean fromCache);
+    }
 
     // Firebase Auth
     public static FirebaseAuth getAuth() {
@@ -23,10 +44,60 @@ public class FirebaseUtil {
     public static FirebaseFirestore getFirestore() {
         if (firestore == null) {
             firestore = FirebaseFirestore.getInstance();
+            firestore.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                    .setLocalCacheSettings(PersistentCacheSettings.newBuilder()
+                            .setSizeBytes(cacheSizeBytes)
+                            .build())
+                    .build());
         }
         return firestore;
     }
 
+    // Must be called before the first getFirestore() call (settings are frozen once Firestore is used).
+    // Pass FirebaseFirestoreSettings.CACHE_SIZE_UNLIMITED to disable garbage collection of the cache
+    public static void configureCache(long sizeBytes) {
+        if (firestore != null) {
+            Log.w(TAG, "configureCache called after Firestore was initialized, ignoring");
+            return;
+        }
+        cacheSizeBytes = sizeBytes;
+    }
+
+    // Reads the document from the local cache first so the screen can paint immediately,
+    // then from the server to refresh it. A cache miss is silent; onFailure only fires
+    // if the server read fails and the cache had nothing to show either.
+    public static void getCacheThenServer(DocumentReference reference, DocumentCallback callback,
+            OnFailureListener onFailure) {
+        final boolean[] serverDelivered = new boolean[1];
+
+        Task<DocumentSnapshot> cacheTask = reference.get(Source.CACHE)
+                .addOnSuccessListener(snapshot -> {
+                    // The server copy may already have landed; never paint older data over it
+                    if (serverDelivered[0] || !snapshot.exists()) return;
+                    callback.onDocument(snapshot, true);
+                });
+
+        Task<DocumentSnapshot> serverTask = reference.get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    serverDelivered[0] = true;
+                    callback.onDocument(snapshot, false);
+                });
+
+        // Offline, the server read usually fails before the cache read returns, so the failure
+        // is only decided once both have finished
+        Tasks.whenAllComplete(cacheTask, serverTask).addOnCompleteListener(done -> {
+            if (serverTask.isSuccessful()) return;
+            Exception e = serverTask.getException();
+            boolean cached = cacheTask.isSuccessful() && cacheTask.getResult().exists();
+            if (cached) {
+                Log.w(TAG, "Server refresh failed, keeping cached " + reference.getPath() + ": "
+                        + (e != null ? e.getMessage() : null));
+            } else if (onFailure != null) {
+                onFailure.onFailure(e != null ? e : new IllegalStateException("Read failed"));
+            }
+        });
+    }
+
     // Storage
     public static FirebaseStorage getStorage() {
         if (storage == null) {
@@ -48,10 +119,28 @@ public class FirebaseUtil {
         return getFirestore().collection("applications");
     }
 
+    // Full proposal text, kept out of the application document so lists only download summaries
+    public static DocumentReference getApplicationDetailsRef(String applicationId) {
+        return getApplicationsCollection().document(applicationId).collection("details").document("proposal");
+    }
+
     public static CollectionReference getRatingsCollection() {
         return getFirestore().collection("ratings");
     }
 
+    public static CollectionReference getNotificationsCollection() {
+        return getFirestore().collection("notifications");
+    }
+
+    // Per-user notification inbox: users/{uid}/inbox
+    public static CollectionReference getInboxCollection(String userId) {
+        return getUsersCollection().document(userId).collection("inbox");
+    }
+
+    public static CollectionReference getPendingProjectsCollection() {
+        return getFirestore().collection("pendingProjects");
+    }
+
     // Storage References
     public static StorageReference getProfileImagesRef() {
         return getStorage().getReference().child("profile_images");
@@ -0,0 +1,144 @@
+package com.orionverse.devplatform.utils;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.target.Target;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+// Starts image loads for rows that are about to scroll into view, so they bind from Glide's
+// memory cache instead of popping in. The look-ahead window grows with scroll velocity (a fling
+// needs more rows warmed than a slow drag), and preloads that fall behind the scroll direction
+// or out of the window are cancelled so a fast fling doesn't queue hundreds of stale requests.
+// Preload requests must match the bind request exactly (model, transformations, override size)
+// or they end up in a different cache entry; adapters expose that request through RequestProvider.
+// Only UserAdapter provides requests so far. No post or application row layout has an avatar
+// view, and Application.developerImageUrl is never written when an application is created.
+public class ImagePreloader {
+    public static final int MIN_WINDOW = 4;
+    public static final int MAX_WINDOW = 40;
+    private static final float ROWS_PER_VELOCITY = 0.02f; // Extra rows per px/s of scroll speed
+    private static final float VELOCITY_SMOOTHING = 0.3f;
+
+    public interface RequestProvider {
+        // Same request the row will make when bound, or null if the row has no image to load
+        @Nullable
+        RequestBuilder<?> getPreloadRequest(int position);
+    }
+
+    private final RequestManager requestManager;
+    private final RequestProvider provider;
+    private final Map<Integer, Target<?>> inFlight = new HashMap<>();
+    private RecyclerView recyclerView;
+    private float velocity = 0; // px per second, smoothed
+    private long lastScrollTime = 0;
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+            updateVelocity(dy);
+            preload(dy);
+        }
+
+        @Override
+        public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+            if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                velocity = 0;
+                lastScrollTime = 0;
+            }
+        }
+    };
+
+    public ImagePreloader(RequestManager requestManager, RequestProvider provider) {
+        this.requestManager = requestManager;
+        this.provider = provider;
+    }
+
+    public void attachTo(RecyclerView recyclerView) {
+        detach();
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void detach() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            recyclerView = null;
+        }
+        cancelAll();
+    }
+
+    public void cancelAll() {
+        for (Target<?> target : inFlight.values()) {
+            requestManager.clear(target);
+        }
+        inFlight.clear();
+    }
+
+    // Current look-ahead in rows
+    int getWindow() {
+        int extra = (int) (Math.abs(velocity) * ROWS_PER_VELOCITY);
+        return Math.max(MIN_WINDOW, Math.min(MAX_WINDOW, MIN_WINDOW + extra));
+    }
+
+    private void updateVelocity(int dy) {
+        long now = SystemClock.uptimeMillis();
+        if (lastScrollTime > 0 && now > lastScrollTime) {
+            float instant = dy * 1000f / (now - lastScrollTime);
+            velocity += VELOCITY_SMOOTHING * (instant - velocity);
+        }
+        lastScrollTime = now;
+    }
+
+    private void preload(int dy) {
+        if (recyclerView == null || dy == 0) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+        RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (adapter == null || adapter != provider) return; // The list is showing another adapter
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (firstVisible == RecyclerView.NO_POSITION) return;
+
+        int window = getWindow();
+        int itemCount = adapter.getItemCount();
+        int from;
+        int to;
+        if (dy > 0) {
+            from = lastVisible + 1;
+            to = Math.min(itemCount - 1, lastVisible + window);
+        } else {
+            from = Math.max(0, firstVisible - window);
+            to = firstVisible - 1;
+        }
+
+        // Anything outside the ahead window is on screen (bound normally) or behind us (not needed)
+        Iterator<Map.Entry<Integer, Target<?>>> it = inFlight.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Integer, Target<?>> entry = it.next();
+            int position = entry.getKey();
+            if (position < from || position > to) {
+                requestManager.clear(entry.getValue());
+                it.remove();
+            }
+        }
+
+        for (int position = from; position <= to; position++) {
+            if (inFlight.containsKey(position)) continue;
+            RequestBuilder<?> request = provider.getPreloadRequest(position);
+            if (request != null) {
+                inFlight.put(position, request.preload());
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.orionverse.devplatform.utils;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Build;
+
+import androidx.exifinterface.media.ExifInterface;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+// Turns a gallery pick into a small, upright, square avatar file before it is uploaded.
+// Decoding is bounded with inSampleSize, so a 48MP photo never becomes a full-size bitmap;
+// EXIF rotation, center-crop and the final scale are applied in one pass, and the result is
+// re-encoded to a temp file, lowering quality until it fits MAX_BYTES.
+// Blocking: call it off the main thread.
+public class ImagePrep {
+    public static final int AVATAR_SIZE_PX = 512;
+    public static final long MAX_BYTES = 150 * 1024;
+    private static final int START_QUALITY = 85;
+    private static final int MIN_QUALITY = 45;
+    private static final int QUALITY_STEP = 10;
+
+    public static File prepareAvatar(Context context, Uri source) throws IOException {
+        return prepareAvatar(context, source, context.getCacheDir());
+    }
+
+    // Same, writing the result into outputDir (e.g. filesDir for files a background job still needs)
+    public static File prepareAvatar(Context context, Uri source, File outputDir) throws IOException {
+        ContentResolver resolver = context.getContentResolver();
+
+        // Bounds only: no pixels are allocated
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(resolver, source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Not a decodable image");
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = calculateInSampleSize(bounds.outWidth, bounds.outHeight, AVATAR_SIZE_PX);
+        options.inPreferredConfig = Bitmap.Config.RGB_565; // Avatars have no alpha; half the memory of ARGB_8888
+        Bitmap sampled;
+        try (InputStream in = open(resolver, source)) {
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) {
+            throw new IOException("Failed to decode image");
+        }
+
+        int orientation;
+        try (InputStream in = open(resolver, source)) {
+            orientation = new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+
+        Bitmap avatar = cropSquare(sampled, orientation, AVATAR_SIZE_PX);
+        if (avatar != sampled) {
+            sampled.recycle();
+        }
+        try {
+            return encode(avatar, outputDir);
+        } finally {
+            avatar.recycle();
+        }
+    }
+
+    // Largest power of two that keeps the shorter side at or above targetPx
+    static int calculateInSampleSize(int width, int height, int targetPx) {
+        int shortSide = Math.min(width, height);
+        int sampleSize = 1;
+        while (shortSide / (sampleSize * 2) >= targetPx) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    private static Bitmap cropSquare(Bitmap source, int orientation, int sizePx) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        int x = (source.getWidth() - side) / 2;
+        int y = (source.getHeight() - side) / 2;
+
+        Matrix matrix = new Matrix();
+        float scale = Math.min(1f, (float) sizePx / side); // Never upscale small picks
+        matrix.postScale(scale, scale);
+        applyOrientation(matrix, orientation);
+        return Bitmap.createBitmap(source, x, y, side, side, matrix, true);
+    }
+
+    private static void applyOrientation(Matrix matrix, int orientation) {
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_HORIZONTAL:
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_FLIP_VERTICAL:
+                matrix.postScale(1, -1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSPOSE:
+                matrix.postRotate(90);
+                matrix.postScale(-1, 1);
+                break;
+            case ExifInterface.ORIENTATION_TRANSVERSE:
+                matrix.postRotate(270);
+                matrix.postScale(-1, 1);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static File encode(Bitmap bitmap, File outputDir) throws IOException {
+        boolean webp = Build.VERSION.SDK_INT >= Build.VERSION_CODES.R;
+        Bitmap.CompressFormat format = webp ? Bitmap.CompressFormat.WEBP_LOSSY : Bitmap.CompressFormat.JPEG;
+        File file = File.createTempFile("avatar_", webp ? ".webp" : ".jpg", outputDir);
+
+        for (int quality = START_QUALITY; ; quality -= QUALITY_STEP) {
+            try (OutputStream out = new FileOutputStream(file)) {
+                if (!bitmap.compress(format, quality, out)) {
+                    file.delete();
+                    throw new IOException("Failed to encode image");
+                }
+            }
+            if (file.length() <= MAX_BYTES || quality - QUALITY_STEP < MIN_QUALITY) {
+                return file;
+            }
+        }
+    }
+
+    private static InputStream open(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new IOException("Cannot open " + uri);
+        }
+        return in;
+    }
+}
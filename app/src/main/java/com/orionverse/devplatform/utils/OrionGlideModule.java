@@ -0,0 +1,58 @@
+package com.orionverse.devplatform.utils;
+
+import android.app.ActivityManager;
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.InputStream;
+
+// App-wide Glide setup. Cloudinary URLs are rewritten per target size (see CloudinaryUrlLoader),
+// and the cache budgets are sized for what the app actually shows: small avatars in long lists.
+// The annotation is what makes Glide's compiler generate GeneratedAppGlideModuleImpl, which is
+// how Glide finds this module at runtime; without it none of the setup below is applied.
+@GlideModule
+public class OrionGlideModule extends AppGlideModule {
+    private static final long DISK_CACHE_BYTES = 150L * 1024 * 1024;
+    private static final float MEMORY_CACHE_SCREENS = 3; // A couple of screens of avatars either side of a fling
+    private static final float LOW_RAM_MEMORY_CACHE_SCREENS = 1.5f;
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+        boolean lowRam = activityManager != null && activityManager.isLowRamDevice();
+
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(lowRam ? LOW_RAM_MEMORY_CACHE_SCREENS : MEMORY_CACHE_SCREENS)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, "image_cache", DISK_CACHE_BYTES));
+
+        if (lowRam) {
+            // Opaque images at half the bytes; circleCrop() still switches to ARGB where it needs alpha
+            builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+        }
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new CloudinaryUrlLoader.Factory());
+    }
+
+    // Everything is registered here; skip the legacy manifest scan
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,271 @@
+package com.orionverse.devplatform.utils;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.Query;
+import com.orionverse.devplatform.adapters.PostAdapter;
+import com.orionverse.devplatform.models.Post;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Cursor-based paging for post lists built on FirebaseUtil.getPostsCollection().
+// Loads fixed-size pages with startAfter/endBefore cursors, prefetches when the user
+// scrolls within prefetchDistance items of either edge and keeps at most maxPages in memory.
+// The query passed in must have an orderBy clause (required for limitToLast).
+public class PostPager {
+    private static final String TAG = "PostPager";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+    public static final int DEFAULT_MAX_PAGES = 5;
+
+    public interface Listener {
+        void onPageLoaded(int loadedCount, boolean reachedEnd);
+        void onError(Exception e);
+    }
+
+    private static class Page {
+        final List<Post> posts;
+        final DocumentSnapshot first;
+        final DocumentSnapshot last;
+
+        Page(List<DocumentSnapshot> documents) {
+            posts = new ArrayList<>();
+            for (DocumentSnapshot document : documents) {
+                Post post = document.toObject(Post.class);
+                if (post != null) {
+                    post.setPostId(document.getId());
+                    posts.add(post);
+                }
+            }
+            first = documents.get(0);
+            last = documents.get(documents.size() - 1);
+        }
+    }
+
+    private final PostAdapter adapter;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final int maxPages;
+    private final ArrayDeque<Page> pages = new ArrayDeque<>();
+    private List<Post> pinned = new ArrayList<>(); // Shown above the first page, e.g. unsent posts
+
+    private Query query;
+    private RecyclerView recyclerView;
+    private Listener listener;
+    private boolean loading = false;
+    private boolean reachedEnd = false;
+    private int trimmedHeadPages = 0; // Pages dropped from the top that can be reloaded
+    private int generation = 0; // Bumped on reset so responses for an old query are ignored
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+            checkPrefetch(dy);
+        }
+    };
+
+    public PostPager(PostAdapter adapter) {
+        this(adapter, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE, DEFAULT_MAX_PAGES);
+    }
+
+    public PostPager(PostAdapter adapter, int pageSize, int prefetchDistance, int maxPages) {
+        this.adapter = adapter;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.maxPages = Math.max(2, maxPages);
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void attachTo(RecyclerView recyclerView) {
+        detach();
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void detach() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            recyclerView = null;
+        }
+    }
+
+    // Start paging a new query from the top, dropping whatever the previous query loaded
+    public void reset(Query query) {
+        clear();
+        this.query = query;
+        loadNextPage();
+    }
+
+    public void clear() {
+        generation++;
+        query = null;
+        pages.clear();
+        loading = false;
+        reachedEnd = false;
+        trimmedHeadPages = 0;
+        adapter.submitList(getDisplayedPosts());
+    }
+
+    // Posts to show ahead of the query results until the query returns them itself
+    public void setPinned(List<Post> posts) {
+        pinned = posts != null ? new ArrayList<>(posts) : new ArrayList<>();
+        adapter.submitList(getDisplayedPosts());
+    }
+
+    // Posts currently held in memory, in display order
+    public List<Post> getLoadedPosts() {
+        List<Post> loaded = new ArrayList<>();
+        for (Page page : pages) {
+            loaded.addAll(page.posts);
+        }
+        return loaded;
+    }
+
+    private List<Post> getDisplayedPosts() {
+        List<Post> loaded = getLoadedPosts();
+        if (pinned.isEmpty() || trimmedHeadPages > 0) return loaded;
+
+        Set<String> loadedIds = new HashSet<>();
+        for (Post post : loaded) {
+            loadedIds.add(post.getPostId());
+        }
+        List<Post> displayed = new ArrayList<>();
+        for (Post post : pinned) {
+            if (!loadedIds.contains(post.getPostId())) {
+                displayed.add(post);
+            }
+        }
+        displayed.addAll(loaded);
+        return displayed;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasReachedEnd() {
+        return reachedEnd;
+    }
+
+    public void loadNextPage() {
+        if (query == null || loading || reachedEnd) return;
+
+        Query pageQuery = query.limit(pageSize);
+        if (!pages.isEmpty()) {
+            pageQuery = query.startAfter(pages.peekLast().last).limit(pageSize);
+        }
+
+        final int requestGeneration = generation;
+        loading = true;
+        pageQuery.get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    if (documents.size() < pageSize) {
+                        reachedEnd = true;
+                    }
+                    if (!documents.isEmpty()) {
+                        Page page = new Page(documents);
+                        pages.addLast(page);
+                        if (pages.size() > maxPages) {
+                            pages.removeFirst();
+                            trimmedHeadPages++;
+                        }
+                        adapter.submitList(getDisplayedPosts());
+                    }
+                    Log.d(TAG, "loadNextPage: " + documents.size() + " posts, " + pages.size() + " pages in memory");
+                    onPageLoaded();
+                })
+                .addOnFailureListener(e -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    Log.w(TAG, "loadNextPage failed: " + e.getMessage());
+                    if (listener != null) listener.onError(e);
+                });
+    }
+
+    public void loadPreviousPage() {
+        if (query == null || loading || trimmedHeadPages == 0 || pages.isEmpty()) return;
+
+        Query pageQuery = query.endBefore(pages.peekFirst().first).limitToLast(pageSize);
+
+        final int requestGeneration = generation;
+        loading = true;
+        pageQuery.get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    trimmedHeadPages--;
+
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    if (documents.isEmpty()) {
+                        trimmedHeadPages = 0;
+                    } else {
+                        Page page = new Page(documents);
+                        pages.addFirst(page);
+                        if (pages.size() > maxPages) {
+                            pages.removeLast();
+                            reachedEnd = false;
+                        }
+                        adapter.submitList(getDisplayedPosts());
+                    }
+                    Log.d(TAG, "loadPreviousPage: " + documents.size() + " posts, " + pages.size() + " pages in memory");
+                    onPageLoaded();
+                })
+                .addOnFailureListener(e -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    Log.w(TAG, "loadPreviousPage failed: " + e.getMessage());
+                    if (listener != null) listener.onError(e);
+                });
+    }
+
+    private void onPageLoaded() {
+        if (listener != null) {
+            listener.onPageLoaded(getLoadedCount(), reachedEnd);
+        }
+        // A short first page may not fill the screen, so no scroll event would trigger the next one
+        if (recyclerView != null) {
+            recyclerView.post(() -> checkPrefetch(0));
+        }
+    }
+
+    private int getLoadedCount() {
+        int count = 0;
+        for (Page page : pages) {
+            count += page.posts.size();
+        }
+        return count;
+    }
+
+    private void checkPrefetch(int dy) {
+        if (recyclerView == null || loading) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int firstVisible = layoutManager.findFirstVisibleItemPosition();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (firstVisible == RecyclerView.NO_POSITION) return;
+
+        if (dy >= 0 && lastVisible >= adapter.getItemCount() - 1 - prefetchDistance) {
+            loadNextPage();
+        } else if (dy < 0 && firstVisible <= prefetchDistance) {
+            loadPreviousPage();
+        }
+    }
+}
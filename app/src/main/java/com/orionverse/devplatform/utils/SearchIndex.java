@@ -0,0 +1,610 @@
+package com.orionverse.devplatform.utils;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+import com.orionverse.devplatform.models.Post;
+import com.orionverse.devplatform.models.User;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// On-device full-text index over posts (title, description, tags) and users (username, skills).
+// Backed by SQLite FTS4 (unicode61 tokenizer) with prefix indexes, kept current by snapshot
+// listeners on documents newer than the last synced createdAt, so searching costs no Firestore reads.
+// The first sync indexes the newest BOOTSTRAP_LIMIT documents so search works right away, then
+// pages through older ones in the background, resuming across app starts until it reaches the end.
+// Edits to user profiles arrive through a second listener on the server-set updatedAt. Deletes
+// (and edits nothing listens for) are caught by re-checking the VERIFY_BATCH least recently
+// verified entries of each table against the server every time sync starts.
+public class SearchIndex extends SQLiteOpenHelper {
+    private static final String TAG = "SearchIndex";
+    private static final String DATABASE_NAME = "search_index.db";
+    private static final int DATABASE_VERSION = 4;
+    public static final int MAX_RESULTS = 50; // Result lists this long may be truncated
+    private static final int BOOTSTRAP_LIMIT = 500; // Also the backfill page size
+    private static final long BACKFILL_DONE = -1;
+    private static final int VERIFY_BATCH = 30; // whereIn limit
+    private static final String LIST_SEPARATOR = ","; // Tags and skills are stored comma-joined
+
+    // Column weights used for ranking: title/username matches count most
+    private static final double[] POST_WEIGHTS = {3.0, 1.0, 2.0}; // title, description, tags
+    private static final double[] USER_WEIGHTS = {3.0, 1.0};      // username, skills
+
+    public interface Callback<T> {
+        void onResult(List<T> results);
+    }
+
+    private static SearchIndex instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private ListenerRegistration postsRegistration;
+    private ListenerRegistration usersRegistration;
+    private ListenerRegistration userEditsRegistration;
+    private boolean syncing = false;
+    private final Set<String> backfilling = new HashSet<>(); // Collections with a backfill page in flight
+
+    public static synchronized SearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new SearchIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private SearchIndex(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE posts (id INTEGER PRIMARY KEY AUTOINCREMENT, post_id TEXT UNIQUE NOT NULL, "
+                + "title TEXT, description TEXT, tags TEXT, author_id TEXT, author_name TEXT, "
+                + "post_type TEXT, applications_count INTEGER, created_at INTEGER, verified_at INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE VIRTUAL TABLE posts_fts USING fts4(content=\"posts\", title, description, tags, tokenize=unicode61, prefix=\"2,3\")");
+        db.execSQL("CREATE TRIGGER posts_bu BEFORE UPDATE ON posts BEGIN DELETE FROM posts_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER posts_bd BEFORE DELETE ON posts BEGIN DELETE FROM posts_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER posts_au AFTER UPDATE ON posts BEGIN INSERT INTO posts_fts(docid, title, description, tags) "
+                + "VALUES (new.id, new.title, new.description, new.tags); END");
+        db.execSQL("CREATE TRIGGER posts_ai AFTER INSERT ON posts BEGIN INSERT INTO posts_fts(docid, title, description, tags) "
+                + "VALUES (new.id, new.title, new.description, new.tags); END");
+
+        db.execSQL("CREATE TABLE users (id INTEGER PRIMARY KEY AUTOINCREMENT, user_id TEXT UNIQUE NOT NULL, "
+                + "username TEXT, skills TEXT, profile_image_url TEXT, average_rating REAL, total_ratings INTEGER, "
+                + "verified_at INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE VIRTUAL TABLE users_fts USING fts4(content=\"users\", username, skills, tokenize=unicode61, prefix=\"2,3\")");
+        db.execSQL("CREATE TRIGGER users_bu BEFORE UPDATE ON users BEGIN DELETE FROM users_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER users_bd BEFORE DELETE ON users BEGIN DELETE FROM users_fts WHERE docid = old.id; END");
+        db.execSQL("CREATE TRIGGER users_au AFTER UPDATE ON users BEGIN INSERT INTO users_fts(docid, username, skills) "
+                + "VALUES (new.id, new.username, new.skills); END");
+        db.execSQL("CREATE TRIGGER users_ai AFTER INSERT ON users BEGIN INSERT INTO users_fts(docid, username, skills) "
+                + "VALUES (new.id, new.username, new.skills); END");
+
+        db.execSQL("CREATE TABLE sync_state (name TEXT PRIMARY KEY, value INTEGER)");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // The index is a cache of Firestore data, so rebuilding it from scratch is always safe
+        for (String table : Arrays.asList("posts_fts", "posts", "users_fts", "users", "sync_state")) {
+            db.execSQL("DROP TABLE IF EXISTS " + table);
+        }
+        onCreate(db);
+    }
+
+    // ---- Sync ----
+
+    public void startSync() {
+        if (syncing) return;
+        syncing = true;
+        // Watermarks live on disk, so read them off the main thread before attaching listeners
+        executor.execute(() -> {
+            long postsWatermark = readWatermark("posts");
+            long usersWatermark = readWatermark("users");
+            long postsBackfill = readWatermark("posts_backfill");
+            long usersBackfill = readWatermark("users_backfill");
+            long storedEditsWatermark = readWatermark("user_edits");
+            if (storedEditsWatermark == 0) {
+                // Nothing older needs catching up: the backfill and verification cover it
+                storedEditsWatermark = System.currentTimeMillis();
+                writeWatermark(getWritableDatabase(), "user_edits", storedEditsWatermark);
+            }
+            long userEditsWatermark = storedEditsWatermark;
+            List<String> postsToVerify = readLeastVerified("posts", "post_id");
+            List<String> usersToVerify = readLeastVerified("users", "user_id");
+            mainHandler.post(() -> {
+                if (!syncing) return;
+                startCollection("posts", postsWatermark, postsBackfill, FirebaseUtil.getPostsCollection(),
+                        this::applyPostChanges, registration -> postsRegistration = registration);
+                startCollection("users", usersWatermark, usersBackfill, FirebaseUtil.getUsersCollection(),
+                        this::applyUserChanges, registration -> usersRegistration = registration);
+                userEditsRegistration = listenSince("user_edits", "updatedAt", userEditsWatermark,
+                        FirebaseUtil.getUsersCollection(), this::applyUserChanges);
+                verify("posts", "post_id", FirebaseUtil.getPostsCollection(), postsToVerify, this::applyPostChanges);
+                verify("users", "user_id", FirebaseUtil.getUsersCollection(), usersToVerify, this::applyUserChanges);
+            });
+        });
+    }
+
+    // Drop a document found to be gone, e.g. when opening a search result fails with "not found"
+    public void removePost(String postId) {
+        executor.execute(() -> getWritableDatabase().delete("posts", "post_id = ?", new String[]{postId}));
+    }
+
+    public void stopSync() {
+        syncing = false;
+        if (postsRegistration != null) {
+            postsRegistration.remove();
+            postsRegistration = null;
+        }
+        if (usersRegistration != null) {
+            usersRegistration.remove();
+            usersRegistration = null;
+        }
+        if (userEditsRegistration != null) {
+            userEditsRegistration.remove();
+            userEditsRegistration = null;
+        }
+    }
+
+    private interface ChangeApplier {
+        // Returns the newest timestamp seen in the given field, for the watermark
+        long apply(SQLiteDatabase db, List<DocumentChange> changes, String timeField);
+    }
+
+    private interface RegistrationSink {
+        void set(ListenerRegistration registration);
+    }
+
+    // backfillCursor is the createdAt the backfill of older documents has reached, or BACKFILL_DONE
+    private void startCollection(String name, long watermark, long backfillCursor, Query collection,
+            ChangeApplier applier, RegistrationSink sink) {
+        if (watermark > 0) {
+            sink.set(listenSince(name, "createdAt", watermark, collection, applier));
+            if (backfillCursor > 0) {
+                startBackfill(name, backfillCursor, collection, applier);
+            }
+            return;
+        }
+        // First sync: the newest documents only, then listen from the newest of those
+        // Server only: a short page read from the offline cache would look like the end of the collection
+        collection.orderBy("createdAt", Query.Direction.DESCENDING).limit(BOOTSTRAP_LIMIT).get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentChange> changes = snapshot.getDocumentChanges();
+                    long cursor = nextBackfillCursor(snapshot);
+                    executor.execute(() -> {
+                        long newest = applyAndAdvance(name, "createdAt", 0, changes, applier);
+                        writeBackfillCursor(getWritableDatabase(), name, cursor);
+                        // No backfilled documents: start from now rather than from the beginning of time
+                        long from = newest > 0 ? newest : System.currentTimeMillis();
+                        mainHandler.post(() -> {
+                            if (!syncing) return;
+                            sink.set(listenSince(name, "createdAt", from, collection, applier));
+                            if (cursor > 0) {
+                                startBackfill(name, cursor, collection, applier);
+                            }
+                        });
+                    });
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Backfill of " + name + " failed: " + e.getMessage()));
+    }
+
+    // Indexes the next page of documents older than the cursor and moves on until a short page
+    // shows the end was reached. The cursor is stored after every page, so a backfill cut short
+    // by stopSync() or the app dying picks up from there on the next startSync().
+    private void startBackfill(String name, long cursor, Query collection, ChangeApplier applier) {
+        // A chain left over from before a stopSync()/startSync() pair is still running
+        if (backfilling.add(name)) {
+            backfill(name, cursor, collection, applier);
+        }
+    }
+
+    private void backfill(String name, long cursor, Query collection, ChangeApplier applier) {
+        if (!syncing) {
+            backfilling.remove(name);
+            return;
+        }
+        // createdAt has sub-millisecond precision; starting just past the cursor's millisecond
+        // re-reads the few documents in it rather than skipping ones that weren't indexed yet
+        collection.orderBy("createdAt", Query.Direction.DESCENDING)
+                .startAfter(new Timestamp(new Date(cursor + 1)))
+                .limit(BOOTSTRAP_LIMIT)
+                .get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentChange> changes = snapshot.getDocumentChanges();
+                    long next = nextBackfillCursor(snapshot);
+                    executor.execute(() -> {
+                        SQLiteDatabase db = getWritableDatabase();
+                        db.beginTransaction();
+                        try {
+                            applier.apply(db, changes, "createdAt");
+                            writeBackfillCursor(db, name, next);
+                            db.setTransactionSuccessful();
+                        } finally {
+                            db.endTransaction();
+                        }
+                        Log.d(TAG, "Backfilled " + changes.size() + " older " + name);
+                        mainHandler.post(() -> {
+                            if (next > 0) {
+                                backfill(name, next, collection, applier);
+                            } else {
+                                backfilling.remove(name);
+                            }
+                        });
+                    });
+                })
+                .addOnFailureListener(e -> {
+                    // Resumes from the stored cursor on the next startSync()
+                    backfilling.remove(name);
+                    Log.w(TAG, "Backfill of older " + name + " failed: " + e.getMessage());
+                });
+    }
+
+    // Oldest createdAt in a full page, or BACKFILL_DONE when the page came back short
+    private long nextBackfillCursor(QuerySnapshot snapshot) {
+        List<DocumentSnapshot> docs = snapshot.getDocuments();
+        if (docs.size() < BOOTSTRAP_LIMIT) return BACKFILL_DONE;
+        Timestamp oldest = docs.get(docs.size() - 1).getTimestamp("createdAt");
+        return oldest != null ? oldest.toDate().getTime() : BACKFILL_DONE;
+    }
+
+    private ListenerRegistration listenSince(String name, String timeField, long watermark, Query collection,
+            ChangeApplier applier) {
+        Query query = collection.whereGreaterThan(timeField, new Timestamp(new Date(watermark)))
+                .orderBy(timeField);
+        return query.addSnapshotListener((snapshot, e) -> {
+            if (e != null) {
+                Log.w(TAG, "Sync of " + name + " failed: " + e.getMessage());
+                return;
+            }
+            if (snapshot == null || snapshot.getDocumentChanges().isEmpty()) return;
+            List<DocumentChange> changes = snapshot.getDocumentChanges();
+            executor.execute(() -> applyAndAdvance(name, timeField, watermark, changes, applier));
+        });
+    }
+
+    private long applyAndAdvance(String name, String timeField, long watermark, List<DocumentChange> changes,
+            ChangeApplier applier) {
+        SQLiteDatabase db = getWritableDatabase();
+        long newest;
+        db.beginTransaction();
+        try {
+            newest = applier.apply(db, changes, timeField);
+            if (newest > watermark) {
+                writeWatermark(db, name, newest);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        Log.d(TAG, "Indexed " + changes.size() + " " + name + " changes");
+        return newest;
+    }
+
+    // Re-reads a batch of indexed documents from the server: missing ones were deleted and are
+    // dropped, the rest are refreshed. Rotates through the table across app starts.
+    private void verify(String table, String idColumn, Query collection, List<String> ids, ChangeApplier applier) {
+        if (ids.isEmpty()) return;
+        collection.whereIn(FieldPath.documentId(), ids).get(Source.SERVER)
+                .addOnSuccessListener(snapshot -> {
+                    List<DocumentChange> changes = snapshot.getDocumentChanges();
+                    executor.execute(() -> {
+                        Set<String> found = new HashSet<>();
+                        for (DocumentChange change : changes) {
+                            found.add(change.getDocument().getId());
+                        }
+                        SQLiteDatabase db = getWritableDatabase();
+                        db.beginTransaction();
+                        try {
+                            applier.apply(db, changes, "createdAt");
+                            long now = System.currentTimeMillis();
+                            for (String id : ids) {
+                                if (found.contains(id)) {
+                                    db.execSQL("UPDATE " + table + " SET verified_at = ? WHERE " + idColumn + " = ?",
+                                            new Object[]{now, id});
+                                } else {
+                                    db.delete(table, idColumn + " = ?", new String[]{id});
+                                }
+                            }
+                            db.setTransactionSuccessful();
+                        } finally {
+                            db.endTransaction();
+                        }
+                        Log.d(TAG, "Verified " + ids.size() + " " + table + ", " + (ids.size() - found.size()) + " gone");
+                    });
+                })
+                .addOnFailureListener(e -> Log.w(TAG, "Verify of " + table + " failed: " + e.getMessage()));
+    }
+
+    private List<String> readLeastVerified(String table, String idColumn) {
+        List<String> ids = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT " + idColumn + " FROM " + table + " ORDER BY verified_at LIMIT " + VERIFY_BATCH, null)) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+            }
+        }
+        return ids;
+    }
+
+    private long applyPostChanges(SQLiteDatabase db, List<DocumentChange> changes, String timeField) {
+        long newest = 0;
+        for (DocumentChange change : changes) {
+            DocumentSnapshot document = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                db.delete("posts", "post_id = ?", new String[]{document.getId()});
+                continue;
+            }
+            Post post = document.toObject(Post.class);
+            if (post == null) continue;
+            post.setPostId(document.getId());
+            upsertPost(db, post);
+            newest = Math.max(newest, getTime(document, timeField));
+        }
+        return newest;
+    }
+
+    private long applyUserChanges(SQLiteDatabase db, List<DocumentChange> changes, String timeField) {
+        long newest = 0;
+        for (DocumentChange change : changes) {
+            DocumentSnapshot document = change.getDocument();
+            if (change.getType() == DocumentChange.Type.REMOVED) {
+                db.delete("users", "user_id = ?", new String[]{document.getId()});
+                continue;
+            }
+            User user = document.toObject(User.class);
+            if (user == null) continue;
+            user.setUserId(document.getId());
+            upsertUser(db, user);
+            newest = Math.max(newest, getTime(document, timeField));
+        }
+        return newest;
+    }
+
+    private static long getTime(DocumentSnapshot document, String field) {
+        Timestamp time = document.getTimestamp(field);
+        return time != null ? time.toDate().getTime() : 0;
+    }
+
+    // Also used to refresh entries from documents loaded elsewhere, e.g. an edited profile
+    public void indexUsers(List<User> users) {
+        executor.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (User user : users) {
+                    upsertUser(db, user);
+                }
+                db.setTransactionSuccessful();
+            } finally {
+                db.endTransaction();
+            }
+        });
+    }
+
+    private void upsertPost(SQLiteDatabase db, Post post) {
+        ContentValues values = new ContentValues();
+        values.put("post_id", post.getPostId());
+        values.put("title", post.getTitle());
+        values.put("description", post.getDescription());
+        values.put("tags", post.getTags() != null ? String.join(LIST_SEPARATOR, post.getTags()) : "");
+        values.put("author_id", post.getAuthorId());
+        values.put("author_name", post.getAuthorName());
+        values.put("post_type", post.getPostType());
+        values.put("applications_count", post.getApplicationsCount());
+        values.put("created_at", post.getCreatedAt() != null ? post.getCreatedAt().toDate().getTime() : 0);
+        // UPDATE then INSERT rather than INSERT OR REPLACE: REPLACE's implicit delete skips the FTS triggers
+        if (db.update("posts", values, "post_id = ?", new String[]{post.getPostId()}) == 0) {
+            db.insert("posts", null, values);
+        }
+    }
+
+    private void upsertUser(SQLiteDatabase db, User user) {
+        if (user.getUserId() == null) return;
+        ContentValues values = new ContentValues();
+        values.put("user_id", user.getUserId());
+        values.put("username", user.getUsername());
+        values.put("skills", user.getSkills() != null ? String.join(LIST_SEPARATOR, user.getSkills()) : "");
+        values.put("profile_image_url", user.getProfileImageUrl());
+        values.put("average_rating", user.getAverageRating());
+        values.put("total_ratings", user.getTotalRatings());
+        if (db.update("users", values, "user_id = ?", new String[]{user.getUserId()}) == 0) {
+            db.insert("users", null, values);
+        }
+    }
+
+    private long readWatermark(String name) {
+        try (Cursor cursor = getReadableDatabase().rawQuery(
+                "SELECT value FROM sync_state WHERE name = ?", new String[]{name})) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    // Never moves backwards, e.g. when an edit to an older document arrives after newer ones
+    private void writeWatermark(SQLiteDatabase db, String name, long value) {
+        db.execSQL("INSERT OR REPLACE INTO sync_state (name, value) VALUES (?, "
+                        + "MAX(?, COALESCE((SELECT value FROM sync_state WHERE name = ?), 0)))",
+                new Object[]{name, value, name});
+    }
+
+    // Unlike the watermarks this moves backwards, towards older documents
+    private void writeBackfillCursor(SQLiteDatabase db, String name, long cursor) {
+        db.execSQL("INSERT OR REPLACE INTO sync_state (name, value) VALUES (?, ?)",
+                new Object[]{name + "_backfill", cursor});
+    }
+
+    // ---- Search ----
+
+    public void searchPosts(String query, Callback<Post> callback) {
+        String match = toMatchExpression(query);
+        if (match == null) {
+            callback.onResult(new ArrayList<>());
+            return;
+        }
+        executor.execute(() -> {
+            List<Ranked<Post>> ranked = new ArrayList<>();
+            try (Cursor cursor = getReadableDatabase().rawQuery(
+                    "SELECT p.post_id, p.title, p.description, p.tags, p.author_id, p.author_name, p.post_type, "
+                            + "p.applications_count, p.created_at, matchinfo(posts_fts, 'pcx') "
+                            + "FROM posts_fts JOIN posts p ON p.id = posts_fts.docid WHERE posts_fts MATCH ?",
+                    new String[]{match})) {
+                while (cursor.moveToNext()) {
+                    Post post = new Post();
+                    post.setPostId(cursor.getString(0));
+                    post.setTitle(cursor.getString(1));
+                    post.setDescription(cursor.getString(2));
+                    String tags = cursor.getString(3);
+                    post.setTags(tags == null || tags.isEmpty() ? new ArrayList<>() : Arrays.asList(tags.split(LIST_SEPARATOR)));
+                    post.setAuthorId(cursor.getString(4));
+                    post.setAuthorName(cursor.getString(5));
+                    post.setPostType(cursor.getString(6));
+                    post.setApplicationsCount(cursor.getInt(7));
+                    post.setCreatedAt(new Timestamp(new Date(cursor.getLong(8))));
+                    ranked.add(new Ranked<>(post, score(cursor.getBlob(9), POST_WEIGHTS)));
+                }
+            }
+            deliver(ranked, callback);
+        });
+    }
+
+    public void searchUsers(String query, Callback<User> callback) {
+        String match = toMatchExpression(query);
+        if (match == null) {
+            callback.onResult(new ArrayList<>());
+            return;
+        }
+        executor.execute(() -> {
+            List<Ranked<User>> ranked = new ArrayList<>();
+            try (Cursor cursor = getReadableDatabase().rawQuery(
+                    "SELECT u.user_id, u.username, u.skills, u.profile_image_url, u.average_rating, u.total_ratings, "
+                            + "matchinfo(users_fts, 'pcx') "
+                            + "FROM users_fts JOIN users u ON u.id = users_fts.docid WHERE users_fts MATCH ?",
+                    new String[]{match})) {
+                while (cursor.moveToNext()) {
+                    User user = new User();
+                    user.setUserId(cursor.getString(0));
+                    user.setUsername(cursor.getString(1));
+                    String skills = cursor.getString(2);
+                    user.setSkills(skills == null || skills.isEmpty() ? new ArrayList<>() : Arrays.asList(skills.split(LIST_SEPARATOR)));
+                    user.setProfileImageUrl(cursor.getString(3));
+                    user.setAverageRating(cursor.getDouble(4));
+                    user.setTotalRatings(cursor.getInt(5));
+                    ranked.add(new Ranked<>(user, score(cursor.getBlob(6), USER_WEIGHTS)));
+                }
+            }
+            deliver(ranked, callback);
+        });
+    }
+
+    private <T> void deliver(List<Ranked<T>> ranked, Callback<T> callback) {
+        Collections.sort(ranked, (a, b) -> Double.compare(b.score, a.score));
+        List<T> results = new ArrayList<>();
+        for (int i = 0; i < ranked.size() && i < MAX_RESULTS; i++) {
+            results.add(ranked.get(i).item);
+        }
+        mainHandler.post(() -> callback.onResult(results));
+    }
+
+    private static class Ranked<T> {
+        final T item;
+        final double score;
+
+        Ranked(T item, double score) {
+            this.item = item;
+            this.score = score;
+        }
+    }
+
+    // matchinfo 'pcx': phrase count, column count, then per phrase/column
+    // (hits in this row, hits in all rows, rows with hits). Rarer terms weigh more.
+    private static double score(byte[] matchInfo, double[] weights) {
+        ByteBuffer buffer = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder());
+        int phrases = buffer.getInt(0);
+        int columns = buffer.getInt(4);
+        double score = 0;
+        for (int p = 0; p < phrases; p++) {
+            for (int c = 0; c < columns; c++) {
+                int base = 8 + 12 * (p * columns + c);
+                int hitsThisRow = buffer.getInt(base);
+                int rowsWithHits = buffer.getInt(base + 8);
+                if (hitsThisRow > 0) {
+                    score += weights[Math.min(c, weights.length - 1)] * hitsThisRow / Math.max(1, rowsWithHits);
+                }
+            }
+        }
+        return score;
+    }
+
+    // ---- Tokenization ----
+
+    // Mirrors the tables' unicode61 tokenizer: letters, digits and private-use characters form
+    // tokens, anything else separates them, and tokens are case-folded and stripped of diacritics
+    // across all of Unicode ("Élan" -> "elan"), so query terms line up with what was indexed
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : text.split("[^\\p{L}\\p{N}\\p{Co}]+")) {
+            if (!token.isEmpty()) {
+                String folded = Normalizer.normalize(token, Normalizer.Form.NFD).replaceAll("\\p{Mn}+", "");
+                tokens.add(folded.toLowerCase(Locale.ROOT));
+            }
+        }
+        return tokens;
+    }
+
+    // Every query token must prefix-match some indexed token: "andro kot" -> "andro* kot*"
+    private static String toMatchExpression(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) return null;
+        StringBuilder match = new StringBuilder();
+        for (String token : tokens) {
+            if (match.length() > 0) match.append(' ');
+            match.append(token).append('*');
+        }
+        return match.toString();
+    }
+
+    // Local equivalent of the MATCH expression, for narrowing cached results
+    public static boolean matches(String query, String... fields) {
+        List<String> fieldTokens = new ArrayList<>();
+        for (String field : fields) {
+            fieldTokens.addAll(tokenize(field));
+        }
+        for (String queryToken : tokenize(query)) {
+            boolean found = false;
+            for (String fieldToken : fieldTokens) {
+                if (fieldToken.startsWith(queryToken)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package com.orionverse.devplatform.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Debounced search with stale-response protection and a prefix cache.
+// Every submit() bumps a sequence number, so results of an older query that land late are dropped.
+// Results known to be complete are cached by query; a longer query that starts with a cached
+// one is answered by filtering that cached superset locally instead of asking the source again.
+public class SearchPipeline<T> {
+    public static final long DEFAULT_DEBOUNCE_MS = 300;
+    private static final int CACHE_SIZE = 32;
+
+    public interface Source<T> {
+        void search(String query, Callback<T> callback);
+    }
+
+    public interface Callback<T> {
+        // complete = the source returned every match, not just the first page
+        void onResult(List<T> items, boolean complete);
+        void onError(Exception e);
+    }
+
+    public interface Matcher<T> {
+        boolean matches(T item, String query);
+    }
+
+    public interface Listener<T> {
+        void onResults(String query, List<T> items, boolean fromCache);
+        void onError(String query, Exception e);
+    }
+
+    private static class Entry<T> {
+        final List<T> items;
+        final boolean complete;
+
+        Entry(List<T> items, boolean complete) {
+            this.items = items;
+            this.complete = complete;
+        }
+    }
+
+    private final Source<T> source;
+    private final Matcher<T> matcher;
+    private final Listener<T> listener;
+    private final LruCache<String, Entry<T>> cache = new LruCache<>(CACHE_SIZE);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private long debounceMs = DEFAULT_DEBOUNCE_MS;
+    private int sequence = 0;
+    private String pendingQuery;
+
+    private final Runnable executeRunnable = () -> execute(pendingQuery);
+
+    public SearchPipeline(Source<T> source, Matcher<T> matcher, Listener<T> listener) {
+        this.source = source;
+        this.matcher = matcher;
+        this.listener = listener;
+    }
+
+    public void setDebounceMs(long debounceMs) {
+        this.debounceMs = debounceMs;
+    }
+
+    public void submit(String query) {
+        cancel();
+        pendingQuery = query;
+        handler.postDelayed(executeRunnable, debounceMs);
+    }
+
+    // Drops the pending debounce and any response still in flight
+    public void cancel() {
+        handler.removeCallbacks(executeRunnable);
+        sequence++;
+    }
+
+    public void clearCache() {
+        cache.evictAll();
+    }
+
+    private void execute(String query) {
+        List<T> cached = lookup(query);
+        if (cached != null) {
+            listener.onResults(query, cached, true);
+            return;
+        }
+
+        final int requestSequence = sequence;
+        source.search(query, new Callback<T>() {
+            @Override
+            public void onResult(List<T> items, boolean complete) {
+                if (requestSequence != sequence) return;
+                cache.put(query, new Entry<>(new ArrayList<>(items), complete));
+                listener.onResults(query, items, false);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (requestSequence != sequence) return;
+                listener.onError(query, e);
+            }
+        });
+    }
+
+    private List<T> lookup(String query) {
+        Entry<T> exact = cache.get(query);
+        if (exact != null && exact.complete) {
+            return new ArrayList<>(exact.items);
+        }
+
+        // Longest cached complete prefix first: it is the smallest superset to filter
+        for (int length = query.length() - 1; length > 0; length--) {
+            Entry<T> superset = cache.get(query.substring(0, length));
+            if (superset != null && superset.complete) {
+                List<T> filtered = new ArrayList<>();
+                for (T item : superset.items) {
+                    if (matcher.matches(item, query)) {
+                        filtered.add(item);
+                    }
+                }
+                cache.put(query, new Entry<>(filtered, true));
+                return new ArrayList<>(filtered);
+            }
+        }
+        return null;
+    }
+}
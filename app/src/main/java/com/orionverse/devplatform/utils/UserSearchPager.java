@@ -0,0 +1,243 @@
+package com.orionverse.devplatform.utils;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+import com.orionverse.devplatform.adapters.UserAdapter;
+import com.orionverse.devplatform.models.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Username prefix search for the Users tab.
+// Local index hits are shown immediately, then Firestore is paged with
+// orderBy("username").startAt(q).endAt(q + "\uf8ff") and each page is merged in as it arrives.
+// Local hits may carry a stale rating or skill list, so they are re-read in whereIn batches.
+// The server half (paging and hydration) waits SERVER_DEBOUNCE_MS after the last reset, longer
+// than the local search debounce, so typing a name costs one round of reads, not one per keystroke.
+public class UserSearchPager {
+    private static final String TAG = "UserSearchPager";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int DEFAULT_PREFETCH_DISTANCE = 5;
+    private static final int WHERE_IN_LIMIT = 30; // Firestore cap on whereIn values
+    public static final long SERVER_DEBOUNCE_MS = 600;
+
+    public interface Listener {
+        void onPageLoaded(int loadedCount, boolean reachedEnd);
+        void onError(Exception e);
+    }
+
+    private final UserAdapter adapter;
+    private final SearchIndex searchIndex;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final Map<String, User> results = new LinkedHashMap<>(); // Keyed by userId, in display order
+
+    private Query query;
+    private DocumentSnapshot lastDocument;
+    private RecyclerView recyclerView;
+    private Listener listener;
+    private boolean loading = false;
+    private boolean reachedEnd = false;
+    private int generation = 0; // Bumped on reset so responses for an old query are ignored
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private String pendingPrefix;
+    private final Runnable serverRunnable = () -> startServer(pendingPrefix);
+
+    private final RecyclerView.OnScrollListener scrollListener = new RecyclerView.OnScrollListener() {
+        @Override
+        public void onScrolled(@NonNull RecyclerView rv, int dx, int dy) {
+            checkPrefetch();
+        }
+    };
+
+    public UserSearchPager(UserAdapter adapter, SearchIndex searchIndex) {
+        this(adapter, searchIndex, DEFAULT_PAGE_SIZE, DEFAULT_PREFETCH_DISTANCE);
+    }
+
+    public UserSearchPager(UserAdapter adapter, SearchIndex searchIndex, int pageSize, int prefetchDistance) {
+        this.adapter = adapter;
+        this.searchIndex = searchIndex;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public void attachTo(RecyclerView recyclerView) {
+        detach();
+        this.recyclerView = recyclerView;
+        recyclerView.addOnScrollListener(scrollListener);
+    }
+
+    public void detach() {
+        if (recyclerView != null) {
+            recyclerView.removeOnScrollListener(scrollListener);
+            recyclerView = null;
+        }
+    }
+
+    // Show localHits right away, then, unless the typing continues, page the server for usernames
+    // starting with prefix. queryServer = false shows the local hits only.
+    public void reset(String prefix, List<User> localHits, boolean queryServer) {
+        clear();
+        String trimmed = prefix.trim();
+        if (trimmed.isEmpty()) return;
+
+        for (User user : localHits) {
+            if (user.getUserId() != null) {
+                results.put(user.getUserId(), user);
+            }
+        }
+        render();
+
+        if (queryServer) {
+            pendingPrefix = trimmed;
+            handler.postDelayed(serverRunnable, SERVER_DEBOUNCE_MS);
+        }
+    }
+
+    private void startServer(String prefix) {
+        hydrate(new ArrayList<>(results.keySet()));
+        query = FirebaseUtil.getUsersCollection()
+                .orderBy("username")
+                .startAt(prefix)
+                .endAt(prefix + "\uf8ff");
+        loadNextPage();
+    }
+
+    public void clear() {
+        handler.removeCallbacks(serverRunnable);
+        generation++;
+        query = null;
+        lastDocument = null;
+        results.clear();
+        loading = false;
+        reachedEnd = false;
+        adapter.submitList(new ArrayList<>());
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public boolean hasReachedEnd() {
+        return reachedEnd;
+    }
+
+    public void loadNextPage() {
+        if (query == null || loading || reachedEnd) return;
+
+        Query pageQuery = lastDocument == null
+                ? query.limit(pageSize)
+                : query.startAfter(lastDocument).limit(pageSize);
+
+        final int requestGeneration = generation;
+        loading = true;
+        pageQuery.get()
+                .addOnSuccessListener(querySnapshot -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+
+                    List<DocumentSnapshot> documents = querySnapshot.getDocuments();
+                    if (documents.size() < pageSize) {
+                        reachedEnd = true;
+                    }
+                    if (!documents.isEmpty()) {
+                        lastDocument = documents.get(documents.size() - 1);
+                        List<User> page = toUsers(documents);
+                        merge(page);
+                        // Fresh server copies keep the local index useful for the next search
+                        searchIndex.indexUsers(page);
+                    }
+                    Log.d(TAG, "loadNextPage: " + documents.size() + " users, " + results.size() + " shown");
+                    onPageLoaded();
+                })
+                .addOnFailureListener(e -> {
+                    if (requestGeneration != generation) return;
+                    loading = false;
+                    Log.w(TAG, "loadNextPage failed: " + e.getMessage());
+                    if (listener != null) listener.onError(e);
+                });
+    }
+
+    // Re-reads the given users by document ID in chunks that fit a single whereIn
+    private void hydrate(List<String> userIds) {
+        final int requestGeneration = generation;
+        for (int start = 0; start < userIds.size(); start += WHERE_IN_LIMIT) {
+            List<String> chunk = userIds.subList(start, Math.min(start + WHERE_IN_LIMIT, userIds.size()));
+            FirebaseUtil.getUsersCollection()
+                    .whereIn(FieldPath.documentId(), new ArrayList<>(chunk))
+                    .get()
+                    .addOnSuccessListener(querySnapshot -> {
+                        if (requestGeneration != generation) return;
+                        List<User> users = toUsers(querySnapshot.getDocuments());
+                        merge(users);
+                        searchIndex.indexUsers(users);
+                    })
+                    .addOnFailureListener(e -> Log.w(TAG, "hydrate failed: " + e.getMessage()));
+        }
+    }
+
+    private List<User> toUsers(List<DocumentSnapshot> documents) {
+        List<User> users = new ArrayList<>();
+        for (DocumentSnapshot document : documents) {
+            User user = document.toObject(User.class);
+            if (user != null) {
+                user.setUserId(document.getId());
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    // Server copies replace local ones in place so rows don't jump around
+    private void merge(List<User> users) {
+        if (users.isEmpty()) return;
+        for (User user : users) {
+            results.put(user.getUserId(), user);
+        }
+        render();
+    }
+
+    private void render() {
+        adapter.submitList(new ArrayList<>(results.values()));
+    }
+
+    private void onPageLoaded() {
+        if (listener != null) {
+            listener.onPageLoaded(results.size(), reachedEnd);
+        }
+        // A short first page may not fill the screen, so no scroll event would trigger the next one
+        if (recyclerView != null) {
+            recyclerView.post(this::checkPrefetch);
+        }
+    }
+
+    private void checkPrefetch() {
+        if (recyclerView == null || loading) return;
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager)) return;
+        if (recyclerView.getAdapter() != adapter) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int lastVisible = layoutManager.findLastVisibleItemPosition();
+        if (lastVisible == RecyclerView.NO_POSITION && !results.isEmpty()) return;
+
+        if (lastVisible >= results.size() - 1 - prefetchDistance) {
+            loadNextPage();
+        }
+    }
+}